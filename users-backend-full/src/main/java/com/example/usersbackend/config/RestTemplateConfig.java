@@ -1,21 +1,77 @@
 package com.example.usersbackend.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * This class is responsible for configuring the RestTemplate bean used for making HTTP requests.
+ * Requests go through a pooled Apache HttpClient that keeps connections alive between pages,
+ * limits the connections per host, asks for compressed responses and never waits without a timeout.
  */
 @Configuration
 public class RestTemplateConfig {
 
     /**
-     * Returns a new instance of RestTemplate.
+     * Returns the HTTP client shared by all requests to the remote provider.
+     * @param connectTimeout how long to wait for a TCP connection
+     * @param readTimeout how long to wait for response data before giving up
+     * @param poolTimeout how long to wait for a free pooled connection
+     * @param maxConnections the maximum number of pooled connections in total
+     * @param maxConnectionsPerHost the maximum number of pooled connections to one host
+     * @param idleTimeout how long an unused connection is kept alive
+     * @param compression whether to ask for gzip or deflate responses
+     * @return the HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient remoteHttpClient(
+            @Value("${external.dummy.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${external.dummy.read-timeout:10s}") Duration readTimeout,
+            @Value("${external.dummy.pool-timeout:5s}") Duration poolTimeout,
+            @Value("${external.dummy.max-connections:20}") int maxConnections,
+            @Value("${external.dummy.max-connections-per-host:10}") int maxConnectionsPerHost,
+            @Value("${external.dummy.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${external.dummy.compression:true}") boolean compression) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout));
+        if (!compression) builder.disableContentCompression();
+        return builder.build();
+    }
+
+    /**
+     * Returns a RestTemplate backed by the pooled HTTP client.
+     * @param remoteHttpClient the HTTP client
      * @return the RestTemplate bean
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient remoteHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(remoteHttpClient));
     }
 }
@@ -1,6 +1,8 @@
 package com.example.usersbackend.config;
 
 import com.example.usersbackend.security.JwtAuthFilter;
+import com.example.usersbackend.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,6 +33,7 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Main security filter chain (replaces WebSecurityConfigurerAdapter)
@@ -45,20 +48,27 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Allow OPTIONS (preflight)
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Allow the async dispatch that completes streamed responses (already authorized on the initial request)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Public endpoints
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/h2-console/**",
                                 "/auth/**",
-                                "/actuator/**"
+                                "/actuator/health/**",
+                                "/actuator/info"
                         ).permitAll()
+                        // Metrics reveal cache, token and JVM internals, so they need a token like the API
+                        .requestMatchers("/actuator/**").authenticated()
                         // Secure endpoints
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().authenticated()
                 )
                 // Add JWT filter
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Throttle each client, identified by the JWT subject set above or its address
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
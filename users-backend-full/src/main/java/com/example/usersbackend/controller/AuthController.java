@@ -1,45 +1,46 @@
 package com.example.usersbackend.controller;
 
-import com.example.usersbackend.security.JwtUtil;
-import lombok.RequiredArgsConstructor;
+import com.example.usersbackend.dto.TokenResponse;
+import com.example.usersbackend.service.AuthService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is responsible for handling authentication requests.
- * It provides a single endpoint for logging in with a username and password.
+ * It provides endpoints for logging in with a username and password and for refreshing an expired access token.
  */
 @CrossOrigin("*")
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
-    private final AuthenticationManager authManager;
+    private final AuthService authService;
 
-    private final JwtUtil jwtUtil;
-
-    public AuthController(AuthenticationManager authManager, JwtUtil jwtUtil) {
-        this.authManager = authManager;
-        this.jwtUtil = jwtUtil;
+    public AuthController(AuthService authService) {
+        this.authService = authService;
     }
 
     /**
-     * Handles the login request.
+     * Handles the login request. The password is checked on the login pool, so the request thread is released
+     * while it runs.
      * @param req the request body containing the username and password
-     * @return the response containing the JWT token
+     * @return the response containing the access and refresh tokens
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String,String> req){
-        String u = req.get("username");
-        String p = req.get("password");
-        Authentication a = authManager.authenticate(new UsernamePasswordAuthenticationToken(u,p));
-        UserDetails ud = (UserDetails)a.getPrincipal();
-        String token = jwtUtil.generateToken(ud.getUsername());
-        return ResponseEntity.ok(Map.of("token", token));
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(@RequestBody Map<String,String> req){
+        return authService.login(req.get("username"), req.get("password")).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Handles the refresh request.
+     * @param req the request body containing the refresh token
+     * @return the response containing a new access token and refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@RequestBody Map<String,String> req){
+        return ResponseEntity.ok(authService.refresh(req.get("refreshToken")));
     }
 }
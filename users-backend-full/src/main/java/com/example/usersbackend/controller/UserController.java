@@ -1,14 +1,22 @@
 package com.example.usersbackend.controller;
 
-import com.example.usersbackend.dto.UserResponse;
+import com.example.usersbackend.dto.BatchSearchRequest;
+import com.example.usersbackend.dto.BulkCreateResponse;
+import com.example.usersbackend.dto.LoadJobResponse;
 import com.example.usersbackend.model.User;
+import com.example.usersbackend.search.PrefixIndex;
+import com.example.usersbackend.service.LoadJobService;
 import com.example.usersbackend.service.UserService;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class is responsible for handling requests related to the User resource.
@@ -20,34 +28,143 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_BATCH_QUERIES = 100;
+    private static final int MAX_BULK_USERS = 10_000;
+
     private final UserService userService;
-    public UserController(UserService userService){ this.userService = userService; }
+    private final LoadJobService loadJobService;
+    public UserController(UserService userService, LoadJobService loadJobService){
+        this.userService = userService;
+        this.loadJobService = loadJobService;
+    }
 
     /**
-     * Loads users from a remote source.
-     * @return the response containing the list of users
+     * Starts loading users from a remote source in the background, or joins the load that is already running.
+     * @return the response containing the state of the load job, with its location
      */
     @PostMapping("/load")
-    public ResponseEntity<List<User>> load(){ return ResponseEntity.ok(userService.loadFromRemote()); }
+    public ResponseEntity<LoadJobResponse> load(){
+        LoadJobResponse job = loadJobService.start();
+        return ResponseEntity.accepted().location(URI.create("/api/users/load/" + job.getJobId())).body(job);
+    }
+
+    /**
+     * Retrieves the state of a load job: pages fetched, rows written, throughput and any error.
+     * @param jobId the ID of the load job
+     * @return the response containing the state of the load job
+     */
+    @GetMapping("/load/{jobId}")
+    public ResponseEntity<LoadJobResponse> loadJob(@PathVariable String jobId){
+        return ResponseEntity.ok(loadJobService.get(jobId));
+    }
 
     /**
      * Retrieves all users.
-     * @return the response containing the list of users
+     * When {@code after} or {@code limit} is given, a single page ordered by ID is returned instead of the full list.
+     * @param after the cursor returned with the previous page
+     * @param limit the maximum number of users per page
+     * @return the response containing the list or page of users
      */
     @GetMapping
-    public ResponseEntity<List<UserResponse>> all(){ return ResponseEntity.ok(userService.getAll()); }
+    public ResponseEntity<?> all(@RequestParam(value = "after", required = false) Long after,
+                                 @RequestParam(value = "limit", required = false) Integer limit){
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(userService.getAll());
+        }
+        return ResponseEntity.ok(userService.getAll(after, pageSize(limit)));
+    }
+
+    /**
+     * Exports all users as newline-delimited JSON, streamed straight from the database.
+     * @return the response streaming one JSON user per line
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = userService::exportNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 
     /**
      * Searches for users by query.
+     * When {@code after} or {@code limit} is given, a single page ordered by ID is returned instead of the full list.
+     * With {@code fuzzy=true} names within one or two typos of the query words are matched instead of substrings;
+     * {@code after} and {@code limit} page the fuzzy matches the same way.
      * @param query the search query
-     * @return the response containing the list of matching users
+     * @param after the cursor returned with the previous page
+     * @param limit the maximum number of users per page
+     * @param fuzzy whether to match names with typos
+     * @return the response containing the list or page of matching users
      */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> search(@RequestParam("query") String query) {
+    public ResponseEntity<?> search(@RequestParam("query") String query,
+                                    @RequestParam(value = "after", required = false) Long after,
+                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                    @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy) {
+        if (query == null || query.trim().length() < 3) {
+            throw new IllegalArgumentException("Query must be at least 3 characters long");
+        }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(fuzzy ? userService.fuzzySearch(query) : userService.search(query));
+        }
+        if (fuzzy) {
+            return ResponseEntity.ok(userService.fuzzySearch(query, after, pageSize(limit)));
+        }
+        return ResponseEntity.ok(userService.search(query, after, pageSize(limit)));
+    }
+
+    /**
+     * Runs several searches in one request, so a page that needs many result lists pays for
+     * authentication, the transaction and the database round trips only once.
+     * @param request the queries, each following the rules of {@code /search}
+     * @return the response containing the matching users keyed by query
+     */
+    @PostMapping("/search/batch")
+    public ResponseEntity<Map<String, List<User>>> searchBatch(@RequestBody BatchSearchRequest request) {
+        List<String> queries = request.getQueries();
+        if (queries == null || queries.isEmpty()) {
+            throw new IllegalArgumentException("At least one query is required");
+        }
+        if (queries.size() > MAX_BATCH_QUERIES) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_QUERIES + " queries are allowed per batch");
+        }
+        for (String query : queries) {
+            if (query == null || query.trim().length() < 3) {
+                throw new IllegalArgumentException("Query must be at least 3 characters long");
+            }
+        }
+        return ResponseEntity.ok(userService.searchBatch(queries));
+    }
+
+    /**
+     * Searches for the most relevant users by query.
+     * @param query the search query
+     * @param limit the maximum number of users to return
+     * @return the response containing the best matching users, most relevant first
+     */
+    @GetMapping("/search/ranked")
+    public ResponseEntity<List<User>> searchRanked(@RequestParam("query") String query,
+                                                   @RequestParam(value = "limit", required = false) Integer limit) {
         if (query == null || query.trim().length() < 3) {
             throw new IllegalArgumentException("Query must be at least 3 characters long");
         }
-        return ResponseEntity.ok(userService.search(query));
+        return ResponseEntity.ok(userService.searchRanked(query, pageSize(limit)));
+    }
+
+    /**
+     * Suggests name and username completions for a prefix, for autocomplete as the user types.
+     * @param prefix the prefix typed so far
+     * @param limit the maximum number of completions
+     * @return the response containing the completions, most frequent first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<PrefixIndex.Completion>> suggest(@RequestParam("prefix") String prefix,
+                                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            throw new IllegalArgumentException("Prefix must not be blank");
+        }
+        return ResponseEntity.ok(userService.suggest(prefix.trim(), limit == null ? DEFAULT_SUGGESTIONS : limit));
     }
 
     /**
@@ -78,4 +195,29 @@ public class UserController {
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody User user){
         return ResponseEntity.ok(userService.createUser(user)); }
+
+    /**
+     * Creates many users in one request; they are written in JDBC batches and either all or none are created.
+     * @param users the users to create, without IDs
+     * @return the response containing the number of created users and their IDs
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResponse> createUsers(@RequestBody List<User> users) {
+        if (users == null || users.isEmpty()) {
+            throw new IllegalArgumentException("At least one user is required");
+        }
+        if (users.size() > MAX_BULK_USERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_USERS + " users are allowed per request");
+        }
+        List<User> saved = userService.createUsers(users);
+        return ResponseEntity.ok(new BulkCreateResponse(saved.size(), saved.stream().map(User::getId).toList()));
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return limit;
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.usersbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * This class represents the request body of the batch search endpoint: the queries to evaluate together.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSearchRequest {
+
+    private List<String> queries;
+}
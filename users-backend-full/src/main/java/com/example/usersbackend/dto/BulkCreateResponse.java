@@ -0,0 +1,22 @@
+package com.example.usersbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * This class represents the result of a bulk create: how many users were created and their IDs, in request order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResponse {
+
+    private int created;
+
+    private List<Long> ids;
+}
@@ -0,0 +1,24 @@
+package com.example.usersbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * This class represents one page of a keyset-paginated result.
+ * The {@code nextCursor} is the ID of the last item on the page and is passed back as {@code after}
+ * to fetch the following page; it is null when there are no more items.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    private Long nextCursor;
+}
@@ -0,0 +1,49 @@
+package com.example.usersbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * This class represents the state of an asynchronous load of the remote users.
+ * The page and row counts belong to the current (or last) attempt. {@code users} and the inserted, updated and
+ * deleted counts are set once the job has succeeded, and {@code unchanged} tells that the remote data was the same
+ * as last time, so nothing was rewritten.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadJobResponse {
+
+    private String jobId;
+
+    private String state;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private int attempts;
+
+    private int pagesFetched;
+
+    private long rowsWritten;
+
+    private long rowsPerSecond;
+
+    private Integer users;
+
+    private Integer inserted;
+
+    private Integer updated;
+
+    private Integer deleted;
+
+    private boolean unchanged;
+
+    private String error;
+}
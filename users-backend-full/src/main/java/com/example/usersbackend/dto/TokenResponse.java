@@ -0,0 +1,26 @@
+package com.example.usersbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * This class represents the tokens issued on login or refresh: a short-lived access token to send as
+ * {@code Authorization: Bearer}, and a refresh token to obtain the next one without the password.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+
+    private String token;
+
+    private String refreshToken;
+
+    /**
+     * Seconds until the access token expires.
+     */
+    private long expiresIn;
+}
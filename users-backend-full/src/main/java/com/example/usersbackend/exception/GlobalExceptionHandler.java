@@ -3,12 +3,16 @@ package com.example.usersbackend.exception;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * This class is responsible for handling requests related to the User resource.
  * It provides endpoints for loading users from a remote source, retrieving all users, searching for users by query,
@@ -56,6 +60,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Handles a failed login or refresh by returning 401, without saying what was wrong with the credentials.
+     * @param ex the {@link AuthenticationException} that was thrown
+     * @return the response containing the error message and status
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> handleAuthentication(AuthenticationException ex) {
+        log.warn("Authentication failed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+    }
+
+    /**
+     * Handles work rejected by a full executor by returning 503, asking the client to retry shortly.
+     * @param ex the {@link RejectedExecutionException} that was thrown
+     * @return the response containing the error message, status and Retry-After header
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejected(RejectedExecutionException ex) {
+        log.warn("Rejected, server busy: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server busy, retry shortly");
+    }
+
     /**
      * Handles the generic exception by returning an appropriate error response.
      * @param ex the {@link Exception} that was thrown
@@ -0,0 +1,71 @@
+package com.example.usersbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * This class represents a user staged by a snapshot load, before the snapshot replaces the users table.
+ * It has the same columns as {@link User}; IDs come from the same sequence, so staged rows keep their ID
+ * when they are published.
+ */
+@Entity
+@Table(name = "users_staging")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StagedUser {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_staging_seq")
+    @SequenceGenerator(name = "users_staging_seq", sequenceName = "users_seq", allocationSize = 50)
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private Integer age;
+
+    private String ssn;
+
+    private String role;
+
+    private String phone;
+
+    private String username;
+
+    private String gender;
+
+    @Column(length = 2000)
+    private String addressJson;
+
+    @Column(unique = true)
+    private Long remoteId;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    /**
+     * Creates a staged copy of a user that has not been saved yet.
+     * @param user the user to stage
+     * @return the staged user, without an ID
+     */
+    public static StagedUser of(User user) {
+        StagedUser staged = new StagedUser();
+        staged.setFirstName(user.getFirstName());
+        staged.setLastName(user.getLastName());
+        staged.setEmail(user.getEmail());
+        staged.setAge(user.getAge());
+        staged.setSsn(user.getSsn());
+        staged.setRole(user.getRole());
+        staged.setPhone(user.getPhone());
+        staged.setUsername(user.getUsername());
+        staged.setGender(user.getGender());
+        staged.setAddressJson(user.getAddressJson());
+        staged.setRemoteId(user.getRemoteId());
+        staged.setContentHash(user.getContentHash());
+        return staged;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.usersbackend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -16,8 +18,12 @@ import lombok.*;
 @Builder
 public class User {
 
+    /**
+     * Drawn from a sequence in blocks of 50 rather than an identity column, so that inserts can be JDBC-batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "firstName must not be blank")
@@ -48,4 +54,18 @@ public class User {
 
     @Column(length = 2000)
     private String addressJson;
+
+    /**
+     * The ID of the user at the remote provider, or null for users created through the API.
+     */
+    @Column(unique = true)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long remoteId;
+
+    /**
+     * A hash of the fields copied from the remote provider, used to skip unchanged users when syncing.
+     */
+    @Column(length = 64)
+    @JsonIgnore
+    private String contentHash;
 }
@@ -0,0 +1,28 @@
+package com.example.usersbackend.repository;
+
+import com.example.usersbackend.model.StagedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The StagedUserRepository interface provides methods for the staging table written by snapshot loads.
+ */
+@Repository
+public interface StagedUserRepository extends JpaRepository<StagedUser, Long> {
+
+    /**
+     * Copies every staged user into the users table with a single statement, keeping their IDs.
+     * @return the number of users copied
+     */
+    @Modifying
+    @Query("""
+           INSERT INTO User (id, firstName, lastName, email, age, ssn, role, phone, username, gender,
+                             addressJson, remoteId, contentHash)
+           SELECT s.id, s.firstName, s.lastName, s.email, s.age, s.ssn, s.role, s.phone, s.username, s.gender,
+                  s.addressJson, s.remoteId, s.contentHash
+           FROM StagedUser s
+           """)
+    int copyIntoUsers();
+}
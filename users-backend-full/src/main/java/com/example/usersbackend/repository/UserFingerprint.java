@@ -0,0 +1,9 @@
+package com.example.usersbackend.repository;
+
+/**
+ * The identity and content hash of a user loaded from the remote provider, read without loading the entity.
+ * @param id the database ID
+ * @param remoteId the ID at the remote provider
+ * @param contentHash the hash of the remote fields when the user was last written
+ */
+public record UserFingerprint(Long id, Long remoteId, String contentHash) { }
@@ -1,12 +1,18 @@
 package com.example.usersbackend.repository;
 
 import com.example.usersbackend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * The UserRepository interface provides methods for interacting with the User entity in the database.
@@ -22,4 +28,55 @@ public interface UserRepository extends JpaRepository<User, Long> {
               OR LOWER(u.ssn) LIKE %:query%
            """)
     List<User> freeTextSearch(@Param("query") String query);
+
+    @Query("""
+           SELECT u FROM User u
+           WHERE u.id > :after
+             AND (LOWER(u.firstName) LIKE %:query%
+                  OR LOWER(u.lastName) LIKE %:query%
+                  OR LOWER(u.ssn) LIKE %:query%)
+           ORDER BY u.id
+           """)
+    List<User> freeTextSearchAfter(@Param("query") String query, @Param("after") Long after, Limit limit);
+
+    @Query("""
+           SELECT u.id FROM User u
+           WHERE LOWER(u.firstName) LIKE %:query%
+              OR LOWER(u.lastName) LIKE %:query%
+              OR LOWER(u.ssn) LIKE %:query%
+           ORDER BY u.id
+           """)
+    List<Long> freeTextSearchIds(@Param("query") String query);
+
+    @Query("""
+           SELECT u.id FROM User u
+           WHERE u.id > :after
+             AND (LOWER(u.firstName) LIKE %:query%
+                  OR LOWER(u.lastName) LIKE %:query%
+                  OR LOWER(u.ssn) LIKE %:query%)
+           ORDER BY u.id
+           """)
+    List<Long> freeTextSearchIdsAfter(@Param("query") String query, @Param("after") Long after, Limit limit);
+
+    @Query("""
+           SELECT new com.example.usersbackend.repository.UserFingerprint(u.id, u.remoteId, u.contentHash)
+           FROM User u
+           WHERE u.remoteId IS NOT NULL
+           """)
+    List<UserFingerprint> findRemoteFingerprints();
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Streams every user ordered by ID. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
 }
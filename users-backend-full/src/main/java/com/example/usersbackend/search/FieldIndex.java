@@ -0,0 +1,237 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class keeps the per-field indexes used by field-qualified search:
+ * hash indexes for the exact-match fields (email, gender), a sorted index for age ranges,
+ * and the normalized fields of every user for verifying the remaining clauses of a query.
+ * Substring matching is served by the {@link TrigramIndex}.
+ * Only the in-memory engine uses these indexes, so they are not built for the other engines.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory", matchIfMissing = true)
+public class FieldIndex implements SearchIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, UserFields> documents = new HashMap<>();
+    private Map<String, Set<Long>> byEmail = new HashMap<>();
+    private Map<String, Set<Long>> byGender = new HashMap<>();
+    private NavigableMap<Integer, Set<Long>> byAge = new TreeMap<>();
+
+    /**
+     * Replaces the whole index with the given users.
+     * @param users the users to index
+     */
+    @Override
+    public void rebuild(Collection<User> users) {
+        FieldIndex fresh = new FieldIndex();
+        for (User user : users) {
+            if (user.getId() != null) fresh.addInternal(user.getId(), UserFields.of(user));
+        }
+        lock.writeLock().lock();
+        try {
+            documents = fresh.documents;
+            byEmail = fresh.byEmail;
+            byGender = fresh.byGender;
+            byAge = fresh.byAge;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Field index rebuilt with {} users", fresh.documents.size());
+    }
+
+    /**
+     * Adds a user, replacing any previous entry with the same ID.
+     * @param user the user to index
+     */
+    @Override
+    public void add(User user) {
+        if (user == null || user.getId() == null) return;
+        UserFields doc = UserFields.of(user);
+        lock.writeLock().lock();
+        try {
+            removeInternal(user.getId());
+            addInternal(user.getId(), doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user.
+     * @param id the ID of the user to remove
+     */
+    @Override
+    public void remove(Long id) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs with exactly the given value for an exact-match field.
+     * @param field EMAIL or GENDER
+     * @param value the normalized value
+     * @return a copy of the matching IDs
+     */
+    public Set<Long> exact(UserQuery.Field field, String value) {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(hashIndex(field).getOrDefault(value, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns how many users have exactly the given value for an exact-match field.
+     */
+    public int countExact(UserQuery.Field field, String value) {
+        lock.readLock().lock();
+        try {
+            return hashIndex(field).getOrDefault(value, Set.of()).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs whose age lies in the inclusive range.
+     * @param min the lower bound, or null for none
+     * @param max the upper bound, or null for none
+     * @return the matching IDs
+     */
+    public Set<Long> ageRange(Integer min, Integer max) {
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = new HashSet<>();
+            for (Set<Long> bucket : ageBuckets(min, max).values()) ids.addAll(bucket);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns how many users have an age in the inclusive range.
+     */
+    public int countAgeRange(Integer min, Integer max) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (Set<Long> bucket : ageBuckets(min, max).values()) count += bucket.size();
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of all indexed users.
+     */
+    public Set<Long> allIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(documents.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the indexed user satisfies every given clause.
+     * @param id the user ID
+     * @param clauses the clauses to check
+     * @return false if the user is unknown or a clause does not match
+     */
+    public boolean matchesAll(Long id, List<UserQuery.Clause> clauses) {
+        lock.readLock().lock();
+        try {
+            UserFields doc = documents.get(id);
+            if (doc == null) return false;
+            for (UserQuery.Clause clause : clauses) {
+                if (!clause.matches(doc)) return false;
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed users.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<Integer, Set<Long>> ageBuckets(Integer min, Integer max) {
+        if (min != null && max != null) {
+            return min > max ? Collections.emptyNavigableMap() : byAge.subMap(min, true, max, true);
+        }
+        if (min != null) return byAge.tailMap(min, true);
+        if (max != null) return byAge.headMap(max, true);
+        return byAge;
+    }
+
+    private Map<String, Set<Long>> hashIndex(UserQuery.Field field) {
+        return switch (field) {
+            case EMAIL -> byEmail;
+            case GENDER -> byGender;
+            default -> throw new IllegalArgumentException("No hash index for " + field);
+        };
+    }
+
+    private void addInternal(Long id, UserFields doc) {
+        documents.put(id, doc);
+        put(byEmail, doc.email(), id);
+        put(byGender, doc.gender(), id);
+        if (doc.age() != null) byAge.computeIfAbsent(doc.age(), a -> new HashSet<>()).add(id);
+    }
+
+    private void removeInternal(Long id) {
+        UserFields old = documents.remove(id);
+        if (old == null) return;
+        take(byEmail, old.email(), id);
+        take(byGender, old.gender(), id);
+        if (old.age() != null) take(byAge, old.age(), id);
+    }
+
+    private static <K> void put(Map<K, Set<Long>> index, K key, Long id) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+    }
+
+    private static <K> void take(Map<K, Set<Long>> index, K key, Long id) {
+        Set<Long> ids = index.get(key);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) index.remove(key);
+    }
+}
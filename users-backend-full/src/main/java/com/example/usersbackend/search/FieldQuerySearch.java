@@ -0,0 +1,108 @@
+package com.example.usersbackend.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class evaluates field-qualified queries against the per-field indexes.
+ * Each clause is costed with its index (hash lookup for exact fields, sorted range for age,
+ * trigram posting lists for substrings); only the most selective clause is expanded into candidates,
+ * and the others are checked against each candidate's indexed fields.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory", matchIfMissing = true)
+public class FieldQuerySearch {
+
+    private static final Map<UserQuery.Field, Set<TrigramIndex.Field>> SUBSTRING_FIELDS = Map.of(
+            UserQuery.Field.USERNAME, EnumSet.of(TrigramIndex.Field.USERNAME),
+            UserQuery.Field.PHONE, EnumSet.of(TrigramIndex.Field.PHONE),
+            UserQuery.Field.TEXT, TrigramIndex.FREE_TEXT_FIELDS
+    );
+
+    private final FieldIndex fieldIndex;
+    private final TrigramIndex trigramIndex;
+
+    public FieldQuerySearch(FieldIndex fieldIndex, TrigramIndex trigramIndex) {
+        this.fieldIndex = fieldIndex;
+        this.trigramIndex = trigramIndex;
+    }
+
+    /**
+     * A clause together with the estimated number of users it matches.
+     */
+    record PlannedClause(UserQuery.Clause clause, int cost) { }
+
+    /**
+     * Returns the IDs of users matching every clause of the query, in ascending order.
+     * @param query the parsed query
+     * @return the sorted list of matching user IDs
+     */
+    public List<Long> search(UserQuery query) {
+        if (query.clauses().isEmpty()) return List.of();
+        List<PlannedClause> plan = plan(query);
+        log.debug("Field query plan: {}", plan);
+
+        UserQuery.Clause driver = plan.get(0).clause();
+        List<UserQuery.Clause> filters = plan.subList(1, plan.size()).stream().map(PlannedClause::clause).toList();
+        List<Long> result = new ArrayList<>();
+        for (Long id : candidates(driver)) {
+            if (fieldIndex.matchesAll(id, filters)) result.add(id);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Orders the clauses from most to least selective.
+     */
+    List<PlannedClause> plan(UserQuery query) {
+        List<PlannedClause> plan = new ArrayList<>();
+        for (UserQuery.Clause clause : query.clauses()) {
+            plan.add(new PlannedClause(clause, cost(clause)));
+        }
+        plan.sort(Comparator.comparingInt(PlannedClause::cost));
+        return plan;
+    }
+
+    private int cost(UserQuery.Clause clause) {
+        return switch (clause.field().kind()) {
+            case EXACT -> fieldIndex.countExact(clause.field(), clause.value());
+            case RANGE -> fieldIndex.countAgeRange(clause.min(), clause.max());
+            case SUBSTRING -> TrigramIndex.supports(clause.value())
+                    ? trigramIndex.estimate(clause.value())
+                    : fieldIndex.size();
+        };
+    }
+
+    private Collection<Long> candidates(UserQuery.Clause clause) {
+        switch (clause.field().kind()) {
+            case EXACT:
+                return fieldIndex.exact(clause.field(), clause.value());
+            case RANGE:
+                return fieldIndex.ageRange(clause.min(), clause.max());
+            default:
+                if (!TrigramIndex.supports(clause.value())) {
+                    // too short for trigrams: scan the indexed fields instead
+                    List<Long> ids = new ArrayList<>();
+                    for (Long id : fieldIndex.allIds()) {
+                        if (fieldIndex.matchesAll(id, List.of(clause))) ids.add(id);
+                    }
+                    return ids;
+                }
+                List<Long> ids = new ArrayList<>();
+                trigramIndex.forEachMatch(clause.value(), SUBSTRING_FIELDS.get(clause.field()), (id, fields) -> ids.add(id));
+                return ids;
+        }
+    }
+}
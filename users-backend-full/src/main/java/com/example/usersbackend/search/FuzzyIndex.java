@@ -0,0 +1,220 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class keeps a BK-tree over the distinct firstName and lastName tokens for typo-tolerant search.
+ * The tree is ordered by Levenshtein distance, so the triangle inequality lets a lookup skip every
+ * subtree that cannot hold a token within the allowed distance instead of comparing against all users.
+ */
+@Slf4j
+@Component
+public class FuzzyIndex implements SearchIndex {
+
+    public static final int MAX_DISTANCE = 2;
+
+    private static final class Node {
+        final String token;
+        final Set<Long> ids = new HashSet<>();
+        final Map<Integer, Node> children = new HashMap<>();
+
+        Node(String token) {
+            this.token = token;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root;
+    private Map<String, Node> nodes = new HashMap<>();
+    private Map<Long, Set<String>> tokensById = new HashMap<>();
+
+    /**
+     * Replaces the whole index with the tokens of the given users.
+     * @param users the users to index
+     */
+    @Override
+    public void rebuild(Collection<User> users) {
+        Map<String, Node> newNodes = new HashMap<>();
+        Map<Long, Set<String>> newTokens = new HashMap<>();
+        Node newRoot = null;
+        for (User user : users) {
+            if (user.getId() == null) continue;
+            Set<String> tokens = tokens(user.getFirstName(), user.getLastName());
+            newTokens.put(user.getId(), tokens);
+            for (String token : tokens) {
+                Node node = newNodes.get(token);
+                if (node == null) {
+                    node = new Node(token);
+                    newNodes.put(token, node);
+                    if (newRoot == null) newRoot = node;
+                    else insert(newRoot, node);
+                }
+                node.ids.add(user.getId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            root = newRoot;
+            nodes = newNodes;
+            tokensById = newTokens;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Fuzzy index rebuilt with {} users and {} tokens", newTokens.size(), newNodes.size());
+    }
+
+    /**
+     * Adds the tokens of a user, replacing the tokens previously indexed for the same ID.
+     * @param user the user to index
+     */
+    @Override
+    public void add(User user) {
+        if (user == null || user.getId() == null) return;
+        Set<String> tokens = tokens(user.getFirstName(), user.getLastName());
+        lock.writeLock().lock();
+        try {
+            removeInternal(user.getId());
+            tokensById.put(user.getId(), tokens);
+            for (String token : tokens) {
+                Node node = nodes.get(token);
+                if (node == null) {
+                    node = new Node(token);
+                    nodes.put(token, node);
+                    if (root == null) root = node;
+                    else insert(root, node);
+                }
+                node.ids.add(user.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the tokens of a user. Tokens left without users stay in the tree but no longer match.
+     * @param id the ID of the user to remove
+     */
+    @Override
+    public void remove(Long id) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of users that have, for every word of the query, a name token within the allowed
+     * edit distance of it. Words of up to three characters allow one edit, longer words allow {@link #MAX_DISTANCE}.
+     * @param query the query string
+     * @return the sorted list of matching user IDs
+     */
+    public List<Long> search(String query) {
+        Set<String> words = tokens(query);
+        if (words.isEmpty()) return List.of();
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String word : words) {
+                Set<Long> matches = new HashSet<>();
+                if (root != null) collect(root, word, maxDistance(word), matches);
+                if (result == null) result = matches;
+                else result.retainAll(matches);
+                if (result.isEmpty()) return List.of();
+            }
+            List<Long> sorted = new ArrayList<>(result);
+            Collections.sort(sorted);
+            return sorted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int maxDistance(String word) {
+        return word.length() <= 3 ? 1 : MAX_DISTANCE;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings using two rolling rows.
+     */
+    static int distance(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    private void removeInternal(Long id) {
+        Set<String> old = tokensById.remove(id);
+        if (old == null) return;
+        for (String token : old) {
+            Node node = nodes.get(token);
+            if (node != null) node.ids.remove(id);
+        }
+    }
+
+    private static void insert(Node root, Node node) {
+        Node current = root;
+        while (true) {
+            int d = distance(node.token, current.token);
+            Node child = current.children.get(d);
+            if (child == null) {
+                current.children.put(d, node);
+                return;
+            }
+            current = child;
+        }
+    }
+
+    private static void collect(Node root, String word, int max, Set<Long> out) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int d = distance(word, node.token);
+            if (d <= max) out.addAll(node.ids);
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - d) <= max) stack.push(child.getValue());
+            }
+        }
+    }
+
+    private static Set<String> tokens(String... values) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String value : values) {
+            for (String token : TrigramIndex.normalize(value).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
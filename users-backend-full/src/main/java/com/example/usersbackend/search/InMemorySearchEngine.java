@@ -0,0 +1,38 @@
+package com.example.usersbackend.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * This class answers searches from the in-memory indexes: field-qualified queries are planned by
+ * {@link FieldQuerySearch} and plain queries are looked up in the {@link TrigramIndex}.
+ * Plain queries shorter than a trigram are not supported and go to the database.
+ * This is the default engine.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemorySearchEngine implements SearchEngine {
+
+    private final TrigramIndex trigramIndex;
+    private final FieldQuerySearch fieldQuerySearch;
+
+    public InMemorySearchEngine(TrigramIndex trigramIndex, FieldQuerySearch fieldQuerySearch) {
+        this.trigramIndex = trigramIndex;
+        this.fieldQuerySearch = fieldQuerySearch;
+    }
+
+    @Override
+    public boolean supports(String query) {
+        return UserQuery.isFieldQuery(query) || TrigramIndex.supports(query);
+    }
+
+    @Override
+    public List<Long> search(String query) {
+        if (UserQuery.isFieldQuery(query)) {
+            return fieldQuerySearch.search(UserQuery.parse(query));
+        }
+        return trigramIndex.search(query);
+    }
+}
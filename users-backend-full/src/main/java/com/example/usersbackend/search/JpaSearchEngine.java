@@ -0,0 +1,151 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class answers searches with JPQL queries against the users table.
+ * Plain queries use the repository's LIKE queries; field-qualified queries are translated clause by clause
+ * into a single JPQL query, at the price of a scan per search. A batch of searches shares one scan. The per-field indexes are not built; the
+ * {@link TrigramIndex}, {@link FuzzyIndex} and {@link PrefixIndex} stay in memory for ranked search, fuzzy
+ * search and suggestions.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "jpa")
+public class JpaSearchEngine implements SearchEngine {
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    public JpaSearchEngine(UserRepository userRepository, EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean supports(String query) {
+        return true;
+    }
+
+    @Override
+    public List<Long> search(String query) {
+        if (UserQuery.isFieldQuery(query)) {
+            return fieldQuery(UserQuery.parse(query), Long.MIN_VALUE, null);
+        }
+        return userRepository.freeTextSearchIds(query);
+    }
+
+    @Override
+    public List<Long> searchAfter(String query, long after, int limit) {
+        if (UserQuery.isFieldQuery(query)) {
+            return fieldQuery(UserQuery.parse(query), after, limit);
+        }
+        return userRepository.freeTextSearchIdsAfter(query, after, Limit.of(limit));
+    }
+
+    /**
+     * Answers all queries with one query over the users table: a row is returned when it matches any of them,
+     * with one {@code CASE} column per query telling which ones.
+     */
+    @Override
+    public Map<String, List<Long>> searchBatch(Collection<String> queries) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(queries));
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        distinct.forEach(query -> results.put(query, new ArrayList<>()));
+        if (distinct.isEmpty()) return results;
+
+        StringBuilder jpql = new StringBuilder("SELECT u.id");
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            String query = distinct.get(i);
+            UserQuery parsed = UserQuery.isFieldQuery(query) ? UserQuery.parse(query)
+                    : new UserQuery(List.of(new UserQuery.Clause(UserQuery.Field.TEXT, query, null, null)));
+            String condition = where(parsed, "q" + i, params);
+            jpql.append(", CASE WHEN ").append(condition).append(" THEN 1 ELSE 0 END");
+            conditions.add("(" + condition + ")");
+        }
+        jpql.append(" FROM User u WHERE ").append(String.join(" OR ", conditions)).append(" ORDER BY u.id");
+        log.debug("Batch of {} queries translated to: {}", distinct.size(), jpql);
+
+        TypedQuery<Object[]> q = entityManager.createQuery(jpql.toString(), Object[].class);
+        params.forEach(q::setParameter);
+        for (Object[] row : q.getResultList()) {
+            for (int i = 0; i < distinct.size(); i++) {
+                if (((Number) row[i + 1]).intValue() == 1) results.get(distinct.get(i)).add((Long) row[0]);
+            }
+        }
+        return results;
+    }
+
+    private List<Long> fieldQuery(UserQuery query, long after, Integer limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("after", after);
+        String jpql = "SELECT u.id FROM User u WHERE u.id > :after AND " + where(query, "", params) + " ORDER BY u.id";
+        log.debug("Field query translated to: {}", jpql);
+
+        TypedQuery<Long> q = entityManager.createQuery(jpql, Long.class);
+        params.forEach(q::setParameter);
+        if (limit != null) q.setMaxResults(limit);
+        return q.getResultList();
+    }
+
+    /**
+     * Returns the clauses of the query joined with AND, binding their values under names starting with the prefix.
+     */
+    private static String where(UserQuery query, String prefix, Map<String, Object> params) {
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < query.clauses().size(); i++) {
+            UserQuery.Clause clause = query.clauses().get(i);
+            String p = prefix + "p" + i;
+            conditions.add(condition(clause, p));
+            if (clause.field() == UserQuery.Field.AGE) {
+                if (clause.min() != null) params.put(p + "min", clause.min());
+                if (clause.max() != null) params.put(p + "max", clause.max());
+            } else if (clause.field().kind() == UserQuery.Kind.SUBSTRING) {
+                params.put(p, "%" + escapeLike(clause.value()) + "%");
+            } else {
+                params.put(p, clause.value());
+            }
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private static String condition(UserQuery.Clause clause, String p) {
+        return switch (clause.field()) {
+            case EMAIL -> "LOWER(u.email) = :" + p;
+            case GENDER -> "LOWER(u.gender) = :" + p;
+            case USERNAME -> "LOWER(u.username) LIKE :" + p + " ESCAPE '\\'";
+            case PHONE -> "LOWER(u.phone) LIKE :" + p + " ESCAPE '\\'";
+            case TEXT -> "(LOWER(u.firstName) LIKE :" + p + " ESCAPE '\\'"
+                    + " OR LOWER(u.lastName) LIKE :" + p + " ESCAPE '\\'"
+                    + " OR LOWER(u.ssn) LIKE :" + p + " ESCAPE '\\')";
+            case AGE -> ageCondition(clause, p);
+        };
+    }
+
+    private static String ageCondition(UserQuery.Clause clause, String p) {
+        if (clause.min() != null && clause.max() != null) {
+            return "u.age BETWEEN :" + p + "min AND :" + p + "max";
+        }
+        return clause.min() != null ? "u.age >= :" + p + "min" : "u.age <= :" + p + "max";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class keeps an embedded Lucene index of the users in heap memory and answers searches from it.
+ * Substring fields are indexed as 3-character grams with positions, so a substring query becomes a phrase
+ * of its consecutive grams; shorter values use a wildcard query on an untokenized copy.
+ * Email and gender are indexed as exact terms, age as a numeric point for range queries.
+ * Writes are made visible through a near-real-time reader that is refreshed after every change, or once per
+ * batch for {@link #apply(Collection, Collection)}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "lucene")
+public class LuceneSearchEngine implements SearchEngine, SearchIndex, DisposableBean {
+
+    static final String ID = "id";
+    static final String KEY = "key";
+    static final String FIRST_NAME = "firstName";
+    static final String LAST_NAME = "lastName";
+    static final String SSN = "ssn";
+    static final String USERNAME = "username";
+    static final String PHONE = "phone";
+    static final String EMAIL = "email";
+    static final String GENDER = "gender";
+    static final String AGE = "age";
+
+    private static final String KEYWORD_SUFFIX = "_kw";
+    private static final String[] TEXT_FIELDS = { FIRST_NAME, LAST_NAME, SSN };
+    private static final Sort BY_ID = new Sort(new SortField(ID, SortField.Type.LONG));
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public LuceneSearchEngine() throws IOException {
+        this.directory = new ByteBuffersDirectory();
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(new GramAnalyzer()));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Override
+    public void rebuild(Collection<User> users) {
+        try {
+            writer.deleteAll();
+            for (User user : users) {
+                if (user.getId() != null) writer.addDocument(document(user));
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to rebuild the Lucene index", ex);
+        }
+        log.info("Lucene index rebuilt with {} users", writer.getDocStats().numDocs);
+    }
+
+    @Override
+    public void add(User user) {
+        if (user == null || user.getId() == null) return;
+        try {
+            writer.updateDocument(new Term(KEY, user.getId().toString()), document(user));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to index user " + user.getId(), ex);
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        if (id == null) return;
+        try {
+            writer.deleteDocuments(new Term(KEY, id.toString()));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to remove user " + id, ex);
+        }
+    }
+
+    /**
+     * Writes every change first and reopens the reader once, so a batch costs a single refresh.
+     */
+    @Override
+    public void apply(Collection<User> added, Collection<Long> removed) {
+        if (added.isEmpty() && removed.isEmpty()) return;
+        try {
+            for (User user : added) {
+                if (user != null && user.getId() != null) {
+                    writer.updateDocument(new Term(KEY, user.getId().toString()), document(user));
+                }
+            }
+            for (Long id : removed) {
+                if (id != null) writer.deleteDocuments(new Term(KEY, id.toString()));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to apply " + added.size() + " additions and "
+                    + removed.size() + " removals to the Lucene index", ex);
+        }
+    }
+
+    @Override
+    public boolean supports(String query) {
+        return true;
+    }
+
+    @Override
+    public List<Long> search(String query) {
+        return run(toLuceneQuery(query), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Long> searchAfter(String query, long after, int limit) {
+        if (after == Long.MAX_VALUE) return List.of();
+        Query q = new BooleanQuery.Builder()
+                .add(toLuceneQuery(query), BooleanClause.Occur.FILTER)
+                .add(LongPoint.newRangeQuery(ID, after + 1, Long.MAX_VALUE), BooleanClause.Occur.FILTER)
+                .build();
+        return run(q, limit);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Translates a plain or field-qualified query into a Lucene query; every clause must match.
+     */
+    Query toLuceneQuery(String query) {
+        if (!UserQuery.isFieldQuery(query)) {
+            String q = TrigramIndex.normalize(query);
+            return q.isEmpty() ? new MatchAllDocsQuery() : anyField(TEXT_FIELDS, q);
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (UserQuery.Clause clause : UserQuery.parse(query).clauses()) {
+            builder.add(clauseQuery(clause), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private List<Long> run(Query query, int limit) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int n = Math.max(1, Math.min(limit, searcher.getIndexReader().numDocs()));
+                List<Long> ids = new ArrayList<>();
+                for (ScoreDoc hit : searcher.search(query, n, BY_ID).scoreDocs) {
+                    ids.add((Long) ((FieldDoc) hit).fields[0]);
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Lucene search failed", ex);
+        }
+    }
+
+    private static Query clauseQuery(UserQuery.Clause clause) {
+        return switch (clause.field()) {
+            case EMAIL -> new TermQuery(new Term(EMAIL, clause.value()));
+            case GENDER -> new TermQuery(new Term(GENDER, clause.value()));
+            case USERNAME -> substring(USERNAME, clause.value());
+            case PHONE -> substring(PHONE, clause.value());
+            case TEXT -> anyField(TEXT_FIELDS, clause.value());
+            case AGE -> IntPoint.newRangeQuery(AGE,
+                    clause.min() == null ? Integer.MIN_VALUE : clause.min(),
+                    clause.max() == null ? Integer.MAX_VALUE : clause.max());
+        };
+    }
+
+    private static Query anyField(String[] fields, String value) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String field : fields) {
+            builder.add(substring(field, value), BooleanClause.Occur.SHOULD);
+        }
+        return builder.setMinimumNumberShouldMatch(1).build();
+    }
+
+    /**
+     * Matches documents whose field contains the value: a phrase of consecutive grams, or a wildcard
+     * on the untokenized copy when the value is shorter than a gram.
+     */
+    private static Query substring(String field, String value) {
+        int n = TrigramIndex.GRAM_LENGTH;
+        if (value.length() < n) {
+            return new WildcardQuery(new Term(field + KEYWORD_SUFFIX, "*" + escapeWildcard(value) + "*"));
+        }
+        if (value.length() == n) {
+            return new TermQuery(new Term(field, value));
+        }
+        PhraseQuery.Builder phrase = new PhraseQuery.Builder();
+        for (int i = 0; i + n <= value.length(); i++) {
+            phrase.add(new Term(field, value.substring(i, i + n)), i);
+        }
+        return phrase.build();
+    }
+
+    private static String escapeWildcard(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == '*' || c == '?' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static Document document(User user) {
+        UserFields fields = UserFields.of(user);
+        Document doc = new Document();
+        doc.add(new StringField(KEY, user.getId().toString(), Field.Store.NO));
+        doc.add(new LongPoint(ID, user.getId()));
+        doc.add(new NumericDocValuesField(ID, user.getId()));
+        addSubstringField(doc, FIRST_NAME, fields.firstName());
+        addSubstringField(doc, LAST_NAME, fields.lastName());
+        addSubstringField(doc, SSN, fields.ssn());
+        addSubstringField(doc, USERNAME, fields.username());
+        addSubstringField(doc, PHONE, fields.phone());
+        doc.add(new StringField(EMAIL, fields.email(), Field.Store.NO));
+        doc.add(new StringField(GENDER, fields.gender(), Field.Store.NO));
+        if (fields.age() != null) doc.add(new IntPoint(AGE, fields.age()));
+        return doc;
+    }
+
+    private static void addSubstringField(Document doc, String name, String value) {
+        doc.add(new TextField(name, value, Field.Store.NO));
+        doc.add(new StringField(name + KEYWORD_SUFFIX, value, Field.Store.NO));
+    }
+
+    /**
+     * Splits text into overlapping lower-cased grams with increasing positions.
+     */
+    private static final class GramAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new NGramTokenizer(TrigramIndex.GRAM_LENGTH, TrigramIndex.GRAM_LENGTH);
+            return new TokenStreamComponents(source, new LowerCaseFilter(source));
+        }
+    }
+}
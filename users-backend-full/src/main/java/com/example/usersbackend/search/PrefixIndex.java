@@ -0,0 +1,248 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * This class keeps an in-memory trie of the normalized firstName, lastName and username terms
+ * for prefix autocomplete. Each node caches the most frequent completions of its subtree, so a
+ * lookup only walks the prefix and copies the cached list; updates refresh the caches on the
+ * path of the changed term.
+ */
+@Slf4j
+@Component
+public class PrefixIndex implements SearchIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Completion[] NO_COMPLETIONS = new Completion[0];
+
+    private static final Comparator<Completion> BEST_FIRST = Comparator
+            .comparingInt(Completion::count).reversed()
+            .thenComparing(Completion::term);
+
+    /**
+     * A suggested term and the number of users it occurs for.
+     */
+    public record Completion(String term, int count) { }
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        String term;
+        int count;
+        Completion[] top = NO_COMPLETIONS;
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+    private Map<Long, String[]> termsById = new HashMap<>();
+
+    /**
+     * Replaces the whole index with the terms of the given users.
+     * @param users the users to index
+     */
+    @Override
+    public void rebuild(Collection<User> users) {
+        Node newRoot = new Node();
+        Map<Long, String[]> newTerms = new HashMap<>();
+        for (User user : users) {
+            if (user.getId() == null) continue;
+            String[] terms = terms(user);
+            newTerms.put(user.getId(), terms);
+            for (String term : terms) {
+                insert(newRoot, term, null);
+            }
+        }
+        refreshAll(newRoot);
+        lock.writeLock().lock();
+        try {
+            root = newRoot;
+            termsById = newTerms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Prefix index rebuilt with {} users", newTerms.size());
+    }
+
+    /**
+     * Adds the terms of a user, replacing the terms previously indexed for the same ID.
+     * @param user the user to index
+     */
+    @Override
+    public void add(User user) {
+        if (user == null || user.getId() == null) return;
+        String[] terms = terms(user);
+        lock.writeLock().lock();
+        try {
+            removeInternal(user.getId());
+            termsById.put(user.getId(), terms);
+            for (String term : terms) {
+                insert(root, term, new ArrayDeque<>());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the terms of a user.
+     * @param id the ID of the user to remove
+     */
+    @Override
+    public void remove(Long id) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most frequent terms starting with the prefix; ties are ordered alphabetically.
+     * @param prefix the prefix to complete
+     * @param limit the maximum number of completions, capped at {@link #MAX_SUGGESTIONS}
+     * @return the completions, most frequent first
+     */
+    public List<Completion> suggest(String prefix, int limit) {
+        String p = TrigramIndex.normalize(prefix);
+        int n = Math.min(limit, MAX_SUGGESTIONS);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < p.length() && node != null; i++) {
+                node = child(node, p.charAt(i));
+            }
+            if (node == null || n <= 0) return List.of();
+            return List.of(Arrays.copyOf(node.top, Math.min(n, node.top.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long id) {
+        String[] old = termsById.remove(id);
+        if (old == null) return;
+        for (String term : old) {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            path.push(node);
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = child(node, term.charAt(i));
+                if (node != null) path.push(node);
+            }
+            if (node == null || node.count == 0) continue;
+            if (--node.count == 0) node.term = null;
+            refreshPath(path, term);
+        }
+    }
+
+    /**
+     * Adds one occurrence of the term. When a path is given the cached completions along it are refreshed
+     * right away; otherwise the caller refreshes the whole trie afterwards.
+     */
+    private static void insert(Node root, String term, Deque<Node> path) {
+        Node node = root;
+        if (path != null) path.push(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = childOrCreate(node, term.charAt(i));
+            if (path != null) path.push(node);
+        }
+        node.term = term;
+        node.count++;
+        if (path != null) refreshPath(path, term);
+    }
+
+    /**
+     * Recomputes the cached completions bottom-up along a path and drops nodes that no longer hold any term.
+     */
+    private static void refreshPath(Deque<Node> path, String term) {
+        int depth = path.size() - 1;
+        Node child = null;
+        while (!path.isEmpty()) {
+            Node node = path.pop();
+            if (child != null && child.count == 0 && child.children.length == 0) {
+                removeChild(node, term.charAt(depth));
+            }
+            refresh(node);
+            child = node;
+            depth--;
+        }
+    }
+
+    private static void refreshAll(Node node) {
+        for (Node child : node.children) refreshAll(child);
+        refresh(node);
+    }
+
+    private static void refresh(Node node) {
+        List<Completion> candidates = new ArrayList<>();
+        if (node.count > 0) candidates.add(new Completion(node.term, node.count));
+        for (Node child : node.children) candidates.addAll(Arrays.asList(child.top));
+        candidates.sort(BEST_FIRST);
+        node.top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(NO_COMPLETIONS);
+    }
+
+    private static Node child(Node node, char c) {
+        int idx = Arrays.binarySearch(node.keys, c);
+        return idx >= 0 ? node.children[idx] : null;
+    }
+
+    private static Node childOrCreate(Node node, char c) {
+        int idx = Arrays.binarySearch(node.keys, c);
+        if (idx >= 0) return node.children[idx];
+        int at = -idx - 1;
+        char[] keys = new char[node.keys.length + 1];
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.keys, 0, keys, 0, at);
+        System.arraycopy(node.children, 0, children, 0, at);
+        System.arraycopy(node.keys, at, keys, at + 1, node.keys.length - at);
+        System.arraycopy(node.children, at, children, at + 1, node.children.length - at);
+        Node created = new Node();
+        keys[at] = c;
+        children[at] = created;
+        node.keys = keys;
+        node.children = children;
+        return created;
+    }
+
+    private static void removeChild(Node node, char c) {
+        int idx = Arrays.binarySearch(node.keys, c);
+        if (idx < 0) return;
+        char[] keys = new char[node.keys.length - 1];
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.keys, 0, keys, 0, idx);
+        System.arraycopy(node.children, 0, children, 0, idx);
+        System.arraycopy(node.keys, idx + 1, keys, idx, keys.length - idx);
+        System.arraycopy(node.children, idx + 1, children, idx, children.length - idx);
+        node.keys = keys;
+        node.children = children;
+    }
+
+    private static String[] terms(User user) {
+        return Stream.of(user.getFirstName(), user.getLastName(), user.getUsername())
+                .map(TrigramIndex::normalize)
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .toArray(String[]::new);
+    }
+}
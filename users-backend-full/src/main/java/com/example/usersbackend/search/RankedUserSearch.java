@@ -0,0 +1,89 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.search.TrigramIndex.Field;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This class ranks free-text matches by relevance and keeps only the best {@code k} of them.
+ * Each of firstName, lastName, username and email contributes its field weight multiplied by the
+ * kind of match (exact, prefix or substring). Candidates come from the {@link TrigramIndex} and are
+ * selected with a bounded min-heap, so the full match set is never sorted.
+ */
+@Component
+public class RankedUserSearch {
+
+    static final int EXACT = 4;
+    static final int PREFIX = 2;
+    static final int SUBSTRING = 1;
+
+    private static final Map<Field, Integer> WEIGHTS = new EnumMap<>(Map.of(
+            Field.FIRST_NAME, 3,
+            Field.LAST_NAME, 3,
+            Field.USERNAME, 2,
+            Field.EMAIL, 1
+    ));
+
+    private static final Comparator<ScoredId> WORST_FIRST = Comparator
+            .comparingInt(ScoredId::score)
+            .thenComparing(ScoredId::id, Comparator.reverseOrder());
+
+    private final TrigramIndex trigramIndex;
+
+    public RankedUserSearch(TrigramIndex trigramIndex) {
+        this.trigramIndex = trigramIndex;
+    }
+
+    /**
+     * A user ID with its relevance score.
+     */
+    public record ScoredId(Long id, int score) { }
+
+    /**
+     * Returns the {@code k} most relevant matches for the query, best first; ties are broken by ascending ID.
+     * @param query the query string, at least {@link TrigramIndex#GRAM_LENGTH} characters long
+     * @param k the maximum number of results
+     * @return the top matches in rank order
+     */
+    public List<ScoredId> topK(String query, int k) {
+        if (k <= 0) return List.of();
+        String q = TrigramIndex.normalize(query);
+        PriorityQueue<ScoredId> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+        trigramIndex.forEachMatch(q, WEIGHTS.keySet(), (id, fields) -> {
+            ScoredId candidate = new ScoredId(id, score(q, fields));
+            if (heap.size() < k) {
+                heap.offer(candidate);
+            } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(candidate);
+            }
+        });
+
+        List<ScoredId> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) result.add(heap.poll());
+        Collections.reverse(result);
+        return result;
+    }
+
+    static int score(String q, String[] fields) {
+        int score = 0;
+        for (Map.Entry<Field, Integer> weight : WEIGHTS.entrySet()) {
+            score += weight.getValue() * matchScore(q, fields[weight.getKey().ordinal()]);
+        }
+        return score;
+    }
+
+    private static int matchScore(String q, String value) {
+        if (value.equals(q)) return EXACT;
+        if (value.startsWith(q)) return PREFIX;
+        if (value.contains(q)) return SUBSTRING;
+        return 0;
+    }
+}
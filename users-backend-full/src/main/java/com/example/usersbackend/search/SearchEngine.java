@@ -0,0 +1,60 @@
+package com.example.usersbackend.search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This interface answers the free-text and field-qualified queries of {@code GET /api/users/search}.
+ * The implementation is selected with the {@code search.engine} property ({@code memory}, {@code jpa} or
+ * {@code lucene}); all of them return matching user IDs in ascending order, so results and paging
+ * behave the same whichever engine is active.
+ */
+public interface SearchEngine {
+
+    /**
+     * Returns whether the engine can answer the query; unsupported queries are run against the database.
+     * @param query the lower-cased query
+     * @return true if {@link #search(String)} can be called with the query
+     */
+    boolean supports(String query);
+
+    /**
+     * Returns the IDs of all users matching the query.
+     * @param query the lower-cased query
+     * @return the matching user IDs in ascending order
+     */
+    List<Long> search(String query);
+
+    /**
+     * Returns the IDs of the users matching each of several queries, all of which must be supported.
+     * The default implementation searches the queries one by one; engines that scan should override it
+     * to answer the whole batch at once.
+     * @param queries the lower-cased queries
+     * @return the matching user IDs in ascending order, keyed by query
+     */
+    default Map<String, List<Long>> searchBatch(Collection<String> queries) {
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        for (String query : queries) {
+            results.computeIfAbsent(query, this::search);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the IDs of the users matching the query that come after the cursor.
+     * The default implementation slices the full result; engines that can seek should override it.
+     * @param query the lower-cased query
+     * @param after only IDs greater than this are returned
+     * @param limit the maximum number of IDs to return
+     * @return the matching user IDs in ascending order
+     */
+    default List<Long> searchAfter(String query, long after, int limit) {
+        List<Long> ids = search(query);
+        int idx = Collections.binarySearch(ids, after);
+        int from = idx >= 0 ? idx + 1 : -idx - 1;
+        return ids.subList(from, Math.min(ids.size(), from + limit));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+
+import java.util.Collection;
+
+/**
+ * This interface is implemented by every structure that keeps a copy of the users for searching.
+ * The user service fans each write out to all of them, so a new index only has to be declared as a bean.
+ */
+public interface SearchIndex {
+
+    /**
+     * Replaces the whole index with the given users.
+     * @param users the users to index
+     */
+    void rebuild(Collection<User> users);
+
+    /**
+     * Adds a user to the index, replacing any previous entry with the same ID.
+     * @param user the user to index
+     */
+    void add(User user);
+
+    /**
+     * Removes a user from the index.
+     * @param id the ID of the user to remove
+     */
+    void remove(Long id);
+
+    /**
+     * Adds and removes many users at once. Indexes that pay a fixed cost for every change, such as reopening
+     * a reader, override this to pay it once for the whole batch.
+     * @param added the users to index, replacing any previous entries with the same IDs
+     * @param removed the IDs of the users to remove
+     */
+    default void apply(Collection<User> added, Collection<Long> removed) {
+        added.forEach(this::add);
+        removed.forEach(this::remove);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class caches free-text search results by normalized query.
+ * Entries are evicted least-recently-used once the cache is full and expire after a fixed time to live.
+ * A new user only invalidates the cached queries it would match; a full reload clears everything.
+ * Hit, miss and eviction counts are published as {@code search.cache.*} metrics.
+ */
+@Slf4j
+@Component
+public class SearchResultCache implements MeterBinder {
+
+    private record Entry(List<User> users, long expiresAt) { }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Incremented on every invalidation so that a result computed before it is not cached after it.
+     */
+    private long generation;
+
+    @Autowired
+    public SearchResultCache(@Value("${search.cache.max-size:1000}") int maxSize,
+                             @Value("${search.cache.ttl:60s}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    SearchResultCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SearchResultCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the query, or computes and caches it.
+     * The loader runs outside the cache lock, so concurrent misses for the same query may both load.
+     * @param query the normalized query
+     * @param loader computes the result on a miss
+     * @return the search result
+     */
+    public List<User> get(String query, Supplier<List<User>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            List<User> cached = lookup(query);
+            if (cached != null) return cached;
+            loadGeneration = generation;
+        }
+        List<User> users = List.copyOf(loader.get());
+        synchronized (this) {
+            store(query, users, loadGeneration);
+        }
+        return users;
+    }
+
+    /**
+     * Returns the results for several queries, computing all misses with a single loader call.
+     * @param queries the normalized queries
+     * @param loader computes the results of the queries that are not cached; queries missing from its map have no matches
+     * @return the result of every query
+     */
+    public Map<String, List<User>> getAll(Collection<String> queries, Function<List<String>, Map<String, List<User>>> loader) {
+        Map<String, List<User>> results = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (String query : new LinkedHashSet<>(queries)) {
+                List<User> cached = lookup(query);
+                if (cached != null) results.put(query, cached);
+                else missing.add(query);
+            }
+            loadGeneration = generation;
+        }
+        if (missing.isEmpty()) return results;
+
+        Map<String, List<User>> loaded = loader.apply(missing);
+        synchronized (this) {
+            for (String query : missing) {
+                List<User> users = List.copyOf(loaded.getOrDefault(query, List.of()));
+                results.put(query, users);
+                store(query, users, loadGeneration);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Drops the cached queries whose result would change, for example because a new user matches them.
+     * @param affected returns true for every query that must be dropped
+     */
+    public synchronized void invalidateMatching(Predicate<String> affected) {
+        generation++;
+        Iterator<String> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (affected.test(it.next())) it.remove();
+        }
+    }
+
+    /**
+     * Drops every cached query.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        log.debug("Search result cache cleared");
+    }
+
+    /**
+     * Returns the number of cached queries.
+     * @return the number of cached queries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the live entry for the query and counts a hit, or counts a miss and returns null.
+     */
+    private List<User> lookup(String query) {
+        Entry entry = entries.get(query);
+        if (entry != null) {
+            if (entry.expiresAt() - ticker.getAsLong() > 0) {
+                hits.incrementAndGet();
+                return entry.users();
+            }
+            entries.remove(query);
+            evictions.incrementAndGet();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches a loaded result unless the cache was invalidated while it was loading.
+     */
+    private void store(String query, List<User> users, long loadGeneration) {
+        if (maxSize > 0 && generation == loadGeneration) {
+            entries.put(query, new Entry(users, ticker.getAsLong() + ttlNanos));
+        }
+    }
+
+    public long hitCount() { return hits.get(); }
+    public long missCount() { return misses.get(); }
+    public long evictionCount() { return evictions.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("search.cache.hits", this, SearchResultCache::hitCount)
+                .description("Search queries answered from the cache").register(registry);
+        FunctionCounter.builder("search.cache.misses", this, SearchResultCache::missCount)
+                .description("Search queries not found in the cache").register(registry);
+        FunctionCounter.builder("search.cache.evictions", this, SearchResultCache::evictionCount)
+                .description("Cached search results evicted by size or expiry").register(registry);
+        Gauge.builder("search.cache.size", this, SearchResultCache::size)
+                .description("Number of cached search queries").register(registry);
+    }
+}
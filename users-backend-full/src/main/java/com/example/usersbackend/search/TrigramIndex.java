@@ -0,0 +1,263 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class keeps an in-memory trigram inverted index over the searchable user fields
+ * so that substring search does not need a full table scan.
+ * Every indexed value is split into overlapping 3-character grams; a query is answered by
+ * intersecting the posting lists of its own grams and verifying the few remaining candidates.
+ */
+@Slf4j
+@Component
+public class TrigramIndex implements SearchIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    /**
+     * The user fields held by the index, in the order they are stored per document.
+     */
+    public enum Field { FIRST_NAME, LAST_NAME, SSN, USERNAME, EMAIL, PHONE }
+
+    /**
+     * The fields covered by the plain free-text search.
+     */
+    public static final Set<Field> FREE_TEXT_FIELDS = EnumSet.of(Field.FIRST_NAME, Field.LAST_NAME, Field.SSN);
+
+    /**
+     * Receives each verified match together with its normalized field values, indexed by {@link Field#ordinal()}.
+     */
+    @FunctionalInterface
+    public interface MatchVisitor {
+        void accept(Long id, String[] fields);
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private Map<Long, String[]> documents = new HashMap<>();
+
+    /**
+     * Replaces the whole index with the given users.
+     * @param users the users to index
+     */
+    @Override
+    public void rebuild(Collection<User> users) {
+        Map<String, Set<Long>> newPostings = new HashMap<>();
+        Map<Long, String[]> newDocuments = new HashMap<>();
+        for (User user : users) {
+            if (user.getId() == null) continue;
+            String[] doc = document(user);
+            newDocuments.put(user.getId(), doc);
+            for (String gram : grams(doc)) {
+                newPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(user.getId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trigram index rebuilt with {} users and {} grams", newDocuments.size(), newPostings.size());
+    }
+
+    /**
+     * Adds a user to the index, replacing any previous entry with the same ID.
+     * @param user the user to index
+     */
+    @Override
+    public void add(User user) {
+        if (user == null || user.getId() == null) return;
+        String[] doc = document(user);
+        lock.writeLock().lock();
+        try {
+            removeInternal(user.getId());
+            documents.put(user.getId(), doc);
+            for (String gram : grams(doc)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(user.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user from the index.
+     * @param id the ID of the user to remove
+     */
+    @Override
+    public void remove(Long id) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the users whose firstName, lastName or ssn contains the query, in ascending order.
+     * @param query the query string, at least {@link #GRAM_LENGTH} characters long
+     * @return the sorted list of matching user IDs
+     * @throws IllegalArgumentException if the query is shorter than {@link #GRAM_LENGTH}
+     */
+    public List<Long> search(String query) {
+        List<Long> result = new ArrayList<>();
+        forEachMatch(query, FREE_TEXT_FIELDS, (id, fields) -> result.add(id));
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Calls the visitor for every user where at least one of the given fields contains the query.
+     * Matches are visited in no particular order while the index is read-locked, so the visitor must not block.
+     * @param query the query string, at least {@link #GRAM_LENGTH} characters long
+     * @param fields the fields that may contain the query
+     * @param visitor the callback receiving each match
+     * @throws IllegalArgumentException if the query is shorter than {@link #GRAM_LENGTH}
+     */
+    public void forEachMatch(String query, Set<Field> fields, MatchVisitor visitor) {
+        if (!supports(query)) {
+            throw new IllegalArgumentException("Query must be at least " + GRAM_LENGTH + " characters long");
+        }
+        String q = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : grams(q)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) return;
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            for (Long id : lists.get(0)) {
+                if (!containsAll(lists, id)) continue;
+                String[] doc = documents.get(id);
+                if (anyFieldContains(doc, fields, q)) {
+                    visitor.accept(id, doc);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an upper bound for the number of users containing the query: the size of its rarest gram's posting list.
+     * @param query the query string, at least {@link #GRAM_LENGTH} characters long
+     * @return the estimated number of matches
+     */
+    public int estimate(String query) {
+        String q = normalize(query);
+        lock.readLock().lock();
+        try {
+            int min = Integer.MAX_VALUE;
+            for (String gram : grams(q)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) return 0;
+                min = Math.min(min, ids.size());
+            }
+            return min == Integer.MAX_VALUE ? documents.size() : min;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the index can answer the given query.
+     * @param query the query string
+     * @return true if the query has at least {@link #GRAM_LENGTH} characters
+     */
+    public static boolean supports(String query) {
+        return query != null && query.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Normalizes a value the same way indexed fields are normalized.
+     * @param value the value to normalize
+     * @return the lower-cased value, or an empty string for null
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the number of indexed users.
+     * @return the number of indexed users
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long id) {
+        String[] old = documents.remove(id);
+        if (old == null) return;
+        for (String gram : grams(old)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) postings.remove(gram);
+            }
+        }
+    }
+
+    private static boolean containsAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) return false;
+        }
+        return true;
+    }
+
+    private static boolean anyFieldContains(String[] doc, Set<Field> fields, String q) {
+        for (Field field : fields) {
+            if (doc[field.ordinal()].contains(q)) return true;
+        }
+        return false;
+    }
+
+    private static String[] document(User user) {
+        String[] doc = new String[Field.values().length];
+        doc[Field.FIRST_NAME.ordinal()] = normalize(user.getFirstName());
+        doc[Field.LAST_NAME.ordinal()] = normalize(user.getLastName());
+        doc[Field.SSN.ordinal()] = normalize(user.getSsn());
+        doc[Field.USERNAME.ordinal()] = normalize(user.getUsername());
+        doc[Field.EMAIL.ordinal()] = normalize(user.getEmail());
+        doc[Field.PHONE.ordinal()] = normalize(user.getPhone());
+        return doc;
+    }
+
+    private static Set<String> grams(String... values) {
+        Set<String> grams = new HashSet<>();
+        for (String text : values) {
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                grams.add(text.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+}
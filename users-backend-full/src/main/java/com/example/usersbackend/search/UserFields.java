@@ -0,0 +1,27 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+
+/**
+ * The normalized (lower-cased, never null) searchable fields of a user.
+ */
+public record UserFields(String firstName, String lastName, String ssn, String email,
+                         String username, String phone, String gender, Integer age) {
+
+    /**
+     * Builds the normalized fields of a user.
+     * @param user the user
+     * @return the normalized fields
+     */
+    public static UserFields of(User user) {
+        return new UserFields(
+                TrigramIndex.normalize(user.getFirstName()),
+                TrigramIndex.normalize(user.getLastName()),
+                TrigramIndex.normalize(user.getSsn()),
+                TrigramIndex.normalize(user.getEmail()),
+                TrigramIndex.normalize(user.getUsername()),
+                TrigramIndex.normalize(user.getPhone()),
+                TrigramIndex.normalize(user.getGender()),
+                user.getAge());
+    }
+}
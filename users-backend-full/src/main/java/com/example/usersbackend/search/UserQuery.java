@@ -0,0 +1,143 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class represents a parsed field-qualified search query such as
+ * {@code email:foo@x.com age:30..40 gender:female emily}.
+ * Every clause must match; words without a known field prefix search firstName, lastName and ssn.
+ * Values can be quoted to include spaces, for example {@code phone:"+1 555"}.
+ */
+public record UserQuery(List<Clause> clauses) {
+
+    private static final Pattern TOKEN = Pattern.compile("(?:([A-Za-z]+):)?(?:\"([^\"]*)\"|(\\S+))");
+
+    /**
+     * How a field is matched and which index serves it.
+     */
+    public enum Kind { EXACT, SUBSTRING, RANGE }
+
+    /**
+     * The fields that can be used as a clause prefix.
+     */
+    public enum Field {
+        EMAIL(Kind.EXACT),
+        GENDER(Kind.EXACT),
+        USERNAME(Kind.SUBSTRING),
+        PHONE(Kind.SUBSTRING),
+        AGE(Kind.RANGE),
+        TEXT(Kind.SUBSTRING);
+
+        private final Kind kind;
+
+        Field(Kind kind) { this.kind = kind; }
+
+        public Kind kind() { return kind; }
+
+        static Field byPrefix(String prefix) {
+            if (prefix == null) return null;
+            for (Field f : values()) {
+                if (f != TEXT && f.name().equalsIgnoreCase(prefix)) return f;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A single condition; {@code value} is normalized, {@code min} and {@code max} are only set for ranges.
+     */
+    public record Clause(Field field, String value, Integer min, Integer max) {
+
+        /**
+         * Returns whether the normalized user fields satisfy this clause.
+         * @param doc the normalized user fields
+         * @return true if the clause matches
+         */
+        public boolean matches(UserFields doc) {
+            return switch (field) {
+                case EMAIL -> doc.email().equals(value);
+                case GENDER -> doc.gender().equals(value);
+                case USERNAME -> doc.username().contains(value);
+                case PHONE -> doc.phone().contains(value);
+                case AGE -> doc.age() != null
+                        && (min == null || doc.age() >= min)
+                        && (max == null || doc.age() <= max);
+                case TEXT -> doc.firstName().contains(value) || doc.lastName().contains(value) || doc.ssn().contains(value);
+            };
+        }
+    }
+
+    /**
+     * Returns whether a user satisfies every clause, without consulting any index.
+     * @param user the user
+     * @return true if the user matches
+     */
+    public boolean matches(User user) {
+        UserFields doc = UserFields.of(user);
+        return clauses.stream().allMatch(c -> c.matches(doc));
+    }
+
+    /**
+     * Returns whether the query uses at least one known field prefix.
+     * @param query the raw query
+     * @return true if the query should be parsed as a field-qualified query
+     */
+    public static boolean isFieldQuery(String query) {
+        if (query == null) return false;
+        Matcher m = TOKEN.matcher(query);
+        while (m.find()) {
+            if (Field.byPrefix(m.group(1)) != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses a query into clauses.
+     * @param query the raw query
+     * @return the parsed query
+     * @throws IllegalArgumentException if a value is empty or an age range is malformed
+     */
+    public static UserQuery parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        Matcher m = TOKEN.matcher(query == null ? "" : query);
+        while (m.find()) {
+            Field field = Field.byPrefix(m.group(1));
+            String raw = m.group(2) != null ? m.group(2) : m.group(3);
+            if (field == null) {
+                // unknown prefixes are kept as part of a plain search word
+                field = Field.TEXT;
+                raw = m.group(0).trim();
+            }
+            String value = TrigramIndex.normalize(raw).trim();
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Empty value for " + field.name().toLowerCase(Locale.ROOT));
+            }
+            clauses.add(field == Field.AGE ? ageClause(value) : new Clause(field, value, null, null));
+        }
+        return new UserQuery(clauses);
+    }
+
+    private static Clause ageClause(String value) {
+        try {
+            int dots = value.indexOf("..");
+            if (dots < 0) {
+                int age = Integer.parseInt(value);
+                return new Clause(Field.AGE, value, age, age);
+            }
+            String from = value.substring(0, dots);
+            String to = value.substring(dots + 2);
+            Integer min = from.isEmpty() ? null : Integer.valueOf(from);
+            Integer max = to.isEmpty() ? null : Integer.valueOf(to);
+            if (min == null && max == null) throw new NumberFormatException();
+            return new Clause(Field.AGE, value, min, max);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid age range: " + value);
+        }
+    }
+}
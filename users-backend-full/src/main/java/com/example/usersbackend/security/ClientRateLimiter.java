@@ -0,0 +1,127 @@
+package com.example.usersbackend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps a token bucket per client and route and decides whether a request may proceed.
+ * <p>
+ * Each bucket is a single timestamp, the time at which it would be full again (the generic cell rate algorithm),
+ * updated with compare-and-set, so taking a token never locks. Buckets live in a concurrent map, whose striping
+ * keeps different clients from contending with each other. Once there are more than {@code max-clients} buckets,
+ * the ones that have refilled completely are dropped, since a full bucket is the same as a new one; this sweep runs
+ * at most once a second, so a flood of new clients cannot turn every request into a scan.
+ */
+@Slf4j
+@Component
+public class ClientRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private record CompiledRoute(String pattern, long intervalNanos, long toleranceNanos) { }
+
+    private final boolean enabled;
+    private final int maxClients;
+    private final List<CompiledRoute> routes = new ArrayList<>();
+    private final CompiledRoute defaultRoute;
+    private final LongSupplier ticker;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+
+    @Autowired
+    public ClientRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    /**
+     * Constructs the limiter from its configuration.
+     * @param properties the limits
+     * @param ticker the current time in nanoseconds
+     * @throws IllegalArgumentException if a limit has a capacity below 1, a non-positive rate, or a route has no path
+     */
+    ClientRateLimiter(RateLimitProperties properties, LongSupplier ticker) {
+        this.enabled = properties.isEnabled();
+        this.maxClients = properties.getMaxClients();
+        this.ticker = ticker;
+        this.lastSweep = new AtomicLong(ticker.getAsLong() - SWEEP_INTERVAL_NANOS);
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getPath() == null || route.getPath().isBlank()) {
+                throw new IllegalArgumentException("security.rate-limit.routes entries must have a path");
+            }
+            routes.add(compile(route.getPath(), route));
+        }
+        this.defaultRoute = compile("default", properties.getDefaultLimit());
+    }
+
+    /**
+     * Returns whether requests are limited at all.
+     * @return true if limiting is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a token from the client's bucket for the route of the path.
+     * @param client identifies the client, e.g. its username or address
+     * @param path the request path, without the context path
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the client may try again
+     */
+    public long tryAcquire(String client, String path) {
+        CompiledRoute route = routeFor(path);
+        long now = ticker.getAsLong();
+        AtomicLong bucket = buckets.get(client + ' ' + route.pattern());
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) evictFull(now);
+            bucket = buckets.computeIfAbsent(client + ' ' + route.pattern(), k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long from = Math.max(fullAt, now);
+            long wait = from - now - route.toleranceNanos();
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(fullAt, from + route.intervalNanos())) return 0;
+        }
+    }
+
+    /**
+     * Returns the number of buckets currently kept.
+     * @return the number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private CompiledRoute routeFor(String path) {
+        for (CompiledRoute route : routes) {
+            if (matcher.match(route.pattern(), path)) return route;
+        }
+        return defaultRoute;
+    }
+
+    private void evictFull(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) return;
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        log.debug("Dropped {} idle rate limit buckets", before - buckets.size());
+    }
+
+    private static CompiledRoute compile(String pattern, RateLimitProperties.Limit limit) {
+        if (limit.getCapacity() < 1 || !(limit.getPerSecond() > 0)) {
+            throw new IllegalArgumentException("Rate limit for " + pattern + " needs capacity >= 1 and per-second > 0");
+        }
+        long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.getPerSecond()));
+        return new CompiledRoute(pattern, interval, interval * (limit.getCapacity() - 1));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.usersbackend.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the accounts that may log in, bound from {@code security.users}.
+ * Passwords are configured as BCrypt hashes only, never in plain text.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security")
+public class CredentialProperties {
+
+    private List<Account> users = new ArrayList<>();
+
+    /**
+     * One account.
+     */
+    @Getter
+    @Setter
+    public static class Account {
+        private String username;
+        private String passwordHash;
+        private List<String> roles = new ArrayList<>();
+    }
+}
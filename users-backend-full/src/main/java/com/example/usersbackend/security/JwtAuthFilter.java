@@ -1,5 +1,6 @@
 package com.example.usersbackend.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,9 +18,11 @@ import java.io.IOException;
 
 /**
  * This class is responsible for authenticating requests using a JWT token.
- * It checks the JWT token in the request header and verifies its validity.
- * If the token is valid, it sets the authentication details in the security context.
- * If the token is invalid or missing, it returns an appropriate error response.
+ * It checks the JWT token in the request header and verifies it with a single parse, unless the same token
+ * has already been verified and is still cached in the {@link VerifiedTokenCache}.
+ * If the token is valid, it sets the authentication details in the security context, built from the token's
+ * claims alone; the user is not looked up again.
+ * If the token is invalid or missing, the request continues unauthenticated and is rejected by the security rules.
  */
 @Slf4j
 @Component
@@ -28,7 +30,7 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
 
     /**
      * Filters the incoming request and sets the authentication details in the security context if the JWT token is valid.
@@ -44,11 +46,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
-        final String token = authHeader.substring(7);
-        final String username = jwtUtil.extractUsername(token);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.isTokenValid(token, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = verify(authHeader.substring(7));
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -56,4 +56,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails verify(String token) {
+        try {
+            return tokenCache.get(token, jwtUtil::parse);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("Rejected JWT token: {}", ex.getMessage());
+            return null;
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.usersbackend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * This class holds what a verified JWT token says about its user: enough to authenticate a request
+ * without looking the user up again.
+ * @param username the subject of the token
+ * @param roles the authorities granted to the user when the token was issued, e.g. {@code ROLE_ADMIN}
+ * @param expiresAt when the token expires
+ */
+public record JwtClaims(String username, List<String> roles, Instant expiresAt) {
+
+    public JwtClaims {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    /**
+     * Returns the roles as granted authorities.
+     * @return the granted authorities
+     */
+    public List<GrantedAuthority> authorities() {
+        return roles.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+    }
+
+    /**
+     * Returns the user described by the token, without a password.
+     * @return the user details
+     */
+    public UserDetails toUserDetails() {
+        return User.withUsername(username).password("").authorities(authorities()).build();
+    }
+}
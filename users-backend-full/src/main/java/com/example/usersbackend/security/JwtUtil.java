@@ -1,68 +1,170 @@
 package com.example.usersbackend.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
 
 /**
  * This class provides utility methods for working with JWT tokens.
+ * A token is verified by a single parse with a parser that is built once and shared, since it is thread-safe.
+ * Tokens carry the user's roles in the {@code roles} claim, so a verified token is enough to authenticate a request.
+ * <p>
+ * Besides these short-lived access tokens it issues long-lived refresh tokens, marked by the {@code typ} claim.
+ * A refresh token only names its user and is accepted by {@link #parseRefresh(String)}, never as an access token.
  */
 @Component
 public class JwtUtil {
+
+    static final String ROLES_CLAIM = "roles";
+    static final String TYPE_CLAIM = "typ";
+    static final String REFRESH_TYPE = "refresh";
+    static final long DEFAULT_REFRESH_EXP_MS = 7L * 24 * 60 * 60 * 1000;
+
     private final Key key;
     private final long expMs;
+    private final long refreshExpMs;
+    private final JwtParser parser;
+
+    /**
+     * Constructs a new instance of the JwtUtil class, with refresh tokens valid for seven days.
+     * @param secret the secret key used for signing and verifying JWT tokens
+     * @param expMs the expiration time in milliseconds for access tokens
+     * @throws IllegalArgumentException if the secret is null or less than 32 characters long
+     */
+    public JwtUtil(String secret, long expMs){
+        this(secret, expMs, DEFAULT_REFRESH_EXP_MS);
+    }
 
     /**
      * Constructs a new instance of the JwtUtil class.
      * @param secret the secret key used for signing and verifying JWT tokens
-     * @param expMs the expiration time in milliseconds for JWT tokens
+     * @param expMs the expiration time in milliseconds for access tokens
+     * @param refreshExpMs the expiration time in milliseconds for refresh tokens
      * @throws IllegalArgumentException if the secret is null or less than 32 characters long
      */
-    public JwtUtil(@Value("${JWT_SECRET:}") String secret, @Value("${security.jwt.expiration-ms:3600000}") long expMs){
+    @Autowired
+    public JwtUtil(@Value("${JWT_SECRET:}") String secret, @Value("${security.jwt.expiration-ms:900000}") long expMs,
+                   @Value("${security.jwt.refresh-expiration-ms:604800000}") long refreshExpMs){
         if(secret == null || secret.length() < 32){
             throw new IllegalArgumentException("JWT_SECRET must be at least 32 characters long. Set env var JWT_SECRET or -DJWT_SECRET=..."); 
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expMs = expMs;
+        this.refreshExpMs = refreshExpMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     /**
-     * Generates a JWT token for the specified user.
+     * Generates a JWT token for the specified user, without roles.
      * @param username the username of the user
      * @return the generated JWT token
      */
     public String generateToken(String username){
+        return generateToken(username, List.of());
+    }
+
+    /**
+     * Generates a JWT token for the specified user, carrying the user's authorities as the {@code roles} claim.
+     * @param user the authenticated user
+     * @return the generated JWT token
+     */
+    public String generateToken(UserDetails user){
+        return generateToken(user.getUsername(), user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    private String generateToken(String username, List<String> roles){
+        long now = System.currentTimeMillis();
+        return Jwts.builder().setSubject(username).claim(ROLES_CLAIM, roles)
+                .setIssuedAt(new Date(now)).setExpiration(new Date(now + expMs)).signWith(key).compact();
+    }
+
+    /**
+     * Generates a refresh token for the specified user. It carries no roles; they are looked up again on refresh.
+     * @param username the username of the user
+     * @return the generated refresh token
+     */
+    public String generateRefreshToken(String username){
         long now = System.currentTimeMillis();
-        return Jwts.builder().setSubject(username).setIssuedAt(new Date(now)).setExpiration(new Date(now + expMs)).signWith(key).compact();
+        return Jwts.builder().setSubject(username).claim(TYPE_CLAIM, REFRESH_TYPE)
+                .setIssuedAt(new Date(now)).setExpiration(new Date(now + refreshExpMs)).signWith(key).compact();
+    }
+
+    /**
+     * Returns how long access tokens are valid.
+     * @return the access token lifetime in milliseconds
+     */
+    public long getExpirationMs(){
+        return expMs;
+    }
+
+    /**
+     * Verifies the specified access token and returns its claims. The signature and expiry are checked in one parse.
+     * @param token the JWT token
+     * @return the claims of the token
+     * @throws JwtException if the token is malformed, has an invalid signature, has expired or is a refresh token
+     */
+    public JwtClaims parse(String token){
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (REFRESH_TYPE.equals(claims.get(TYPE_CLAIM))) {
+            throw new UnsupportedJwtException("A refresh token cannot be used as an access token");
+        }
+        return new JwtClaims(claims.getSubject(), rolesOf(claims), claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Verifies the specified refresh token and returns its claims, which have no roles.
+     * @param token the refresh token
+     * @return the claims of the token
+     * @throws JwtException if the token is malformed, has an invalid signature, has expired or is not a refresh token
+     */
+    public JwtClaims parseRefresh(String token){
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (!REFRESH_TYPE.equals(claims.get(TYPE_CLAIM))) {
+            throw new UnsupportedJwtException("Not a refresh token");
+        }
+        return new JwtClaims(claims.getSubject(), List.of(), claims.getExpiration().toInstant());
     }
 
     /**
      * Returns the username associated with the specified JWT token.
      * @param token the JWT token
      * @return the username associated with the token
+     * @throws JwtException if the token is not valid
      */
     public String extractUsername(String token){
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        return parse(token).username();
     }
 
     /**
-     * Returns the issued at date associated with the specified JWT token.
+     * Returns whether the specified JWT token is valid and was issued to the specified user.
      * @param token the JWT token
-     * @return the issued at date
+     * @param ud the user the token should belong to
+     * @return true if the token is valid for the user
      */
-    public boolean isTokenValid(String token, UserDetails ud){
+    public boolean isTokenValid(String token, UserDetails ud) {
         try {
-            String username = extractUsername(token);
-            Date exp = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getExpiration();
-            return username.equals(ud.getUsername()) && exp.after(new Date());
-        } catch (Exception ex) {
+            return parse(token).username().equals(ud.getUsername());
+        } catch (JwtException | IllegalArgumentException ex) {
             return false;
         }
     }
+
+    private static List<String> rolesOf(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> list)) return List.of();
+        return list.stream().map(String::valueOf).toList();
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.usersbackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class throttles each client to the limits of the {@link ClientRateLimiter}.
+ * It runs after the {@link JwtAuthFilter}, so an authenticated client is identified by its username and keeps its
+ * budget across addresses; anyone else is identified by the remote address.
+ * A request over the limit is answered with 429 and a {@code Retry-After} header, without reaching the controllers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter limiter;
+
+    /**
+     * Lets the request through if the client has a token left for its route, and answers 429 otherwise.
+     * @param request the incoming request
+     * @param response the outgoing response
+     * @param filterChain the filter chain
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!limiter.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String client = clientOf(request);
+        long waitNanos = limiter.tryAcquire(client, request.getRequestURI().substring(request.getContextPath().length()));
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            log.debug("Rate limited {} on {}, retry after {}s", client, request.getRequestURI(), retryAfter);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many requests, retry after " + retryAfter + "s");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
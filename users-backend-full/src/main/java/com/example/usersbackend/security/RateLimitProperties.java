@@ -0,0 +1,58 @@
+package com.example.usersbackend.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the per-client request limits, bound from {@code security.rate-limit}.
+ * Each route is an Ant-style path pattern with its own limit; the first matching route applies and other requests
+ * fall under the default limit. Every client has a separate budget per route.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of clients above which idle clients are forgotten.
+     */
+    private int maxClients = 100_000;
+
+    private Limit defaultLimit = new Limit(100, 50);
+
+    private List<Route> routes = new ArrayList<>();
+
+    /**
+     * A token bucket: up to {@code capacity} requests in a burst, refilled at {@code perSecond} requests per second.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity;
+        private double perSecond;
+
+        public Limit() { }
+
+        public Limit(int capacity, double perSecond) {
+            this.capacity = capacity;
+            this.perSecond = perSecond;
+        }
+    }
+
+    /**
+     * The limit of the requests whose path matches {@code path}.
+     */
+    @Getter
+    @Setter
+    public static class Route extends Limit {
+        private String path;
+    }
+}
@@ -5,31 +5,66 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * This class provides an implementation of the UserDetails interface for user authentication.
- * It retrieves user details from the database using the UserRepository bean.
+ * It serves the accounts configured under {@code security.users}, whose passwords are stored as BCrypt hashes.
+ * The accounts are built once at startup, so looking one up never hashes anything; BCrypt only runs when a
+ * password is checked on login.
  */
 @Slf4j
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final Map<String, UserDetails> users;
+
+    /**
+     * Constructs the service from the configured accounts.
+     * @param properties the configured accounts
+     * @throws IllegalArgumentException if an account has no username, a password that is not a BCrypt hash, or a duplicate username
+     */
+    public UserDetailsServiceImpl(CredentialProperties properties) {
+        Map<String, UserDetails> byName = new HashMap<>();
+        for (CredentialProperties.Account account : properties.getUsers()) {
+            if (account.getUsername() == null || account.getUsername().isBlank()) {
+                throw new IllegalArgumentException("security.users entries must have a username");
+            }
+            if (account.getPasswordHash() == null || !account.getPasswordHash().startsWith("$2")) {
+                throw new IllegalArgumentException("security.users password-hash for " + account.getUsername() + " must be a BCrypt hash");
+            }
+            UserDetails user = User.withUsername(account.getUsername()).password(account.getPasswordHash())
+                    .roles(account.getRoles().toArray(String[]::new)).build();
+            if (byName.put(key(account.getUsername()), user) != null) {
+                throw new IllegalArgumentException("security.users has more than one account named " + account.getUsername());
+            }
+        }
+        this.users = Map.copyOf(byName);
+        log.info("Loaded {} account(s)", users.size());
+    }
 
     /**
      * Returns the UserDetails object for the specified username.
-     * @param username the username of the user
+     * A copy is returned, since the authentication manager erases the password of the user it authenticated.
+     * @param username the username of the user, in any case
      * @return the UserDetails object
      * @throws UsernameNotFoundException if the user is not found
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Loading user {}", username);
-        if ("admin".equalsIgnoreCase(username)) {
-            return User.builder().username("admin").password(encoder.encode("admin123")).roles("ADMIN").build();
+        log.debug("Loading user {}", username);
+        UserDetails user = username != null ? users.get(key(username)) : null;
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
         }
-        throw new UsernameNotFoundException("User not found: " + username);
+        return User.withUserDetails(user).build();
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,158 @@
+package com.example.usersbackend.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This class remembers tokens that have already been verified, so a client reusing its token skips the signature
+ * check and gets the same principal back. Tokens are keyed by their SHA-256 digest, never stored as such.
+ * <p>
+ * An entry lives until its token expires. Once the cache is full the oldest entries are evicted first; since all
+ * tokens have the same lifetime, these are also the first to expire. Only successfully verified tokens are cached.
+ * Hit, miss and eviction counts and the time spent verifying are published as {@code jwt.cache.*} and
+ * {@code jwt.verify} metrics.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private record Entry(UserDetails user, Instant expiresAt) { }
+
+    private final int maxSize;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * Cached keys in insertion order; may still hold keys whose entries have already expired.
+     */
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-size:10000}") int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the principal of a verified token, verifying and caching it on a miss.
+     * @param token the raw token
+     * @param verifier verifies the token, throwing if it is not valid
+     * @return the principal described by the token
+     */
+    public UserDetails get(String token, Function<String, JwtClaims> verifier) {
+        String key = digest(token);
+        Instant now = clock.instant();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt().isAfter(now)) {
+                hits.incrementAndGet();
+                return entry.user();
+            }
+            if (entries.remove(key, entry)) evictions.incrementAndGet();
+        }
+        misses.incrementAndGet();
+
+        long start = System.nanoTime();
+        JwtClaims claims;
+        try {
+            claims = verifier.apply(token);
+        } finally {
+            verifications.increment();
+            verifyNanos.add(System.nanoTime() - start);
+        }
+        UserDetails user = claims.toUserDetails();
+        if (maxSize > 0 && claims.expiresAt() != null && claims.expiresAt().isAfter(now)
+                && entries.putIfAbsent(key, new Entry(user, claims.expiresAt())) == null) {
+            insertionOrder.add(key);
+            evictOldest(now);
+        }
+        return user;
+    }
+
+    /**
+     * Drops every cached token.
+     */
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    /**
+     * Returns the number of cached tokens.
+     * @return the number of cached tokens
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes expired entries from the head of the queue, then the oldest entries while the cache is over its size.
+     */
+    private void evictOldest(Instant now) {
+        String key;
+        while ((key = insertionOrder.peek()) != null) {
+            Entry entry = entries.get(key);
+            boolean over = entries.size() > maxSize;
+            if (entry != null && entry.expiresAt().isAfter(now) && !over) break;
+            if (!insertionOrder.remove(key)) continue;
+            if (entry != null && entries.remove(key, entry)) evictions.incrementAndGet();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public long hitCount() { return hits.get(); }
+    public long missCount() { return misses.get(); }
+    public long evictionCount() { return evictions.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.cache.hits", this, VerifiedTokenCache::hitCount)
+                .description("Requests authenticated from an already verified token").register(registry);
+        FunctionCounter.builder("jwt.cache.misses", this, VerifiedTokenCache::missCount)
+                .description("Requests whose token had to be verified").register(registry);
+        FunctionCounter.builder("jwt.cache.evictions", this, VerifiedTokenCache::evictionCount)
+                .description("Verified tokens evicted by size or expiry").register(registry);
+        Gauge.builder("jwt.cache.size", this, VerifiedTokenCache::size)
+                .description("Number of cached verified tokens").register(registry);
+        FunctionTimer.builder("jwt.verify", this, cache -> cache.verifications.sum(),
+                        cache -> cache.verifyNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent verifying token signatures").register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.TokenResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for issuing tokens by password login or refresh token.
+ */
+public interface AuthService {
+    CompletableFuture<TokenResponse> login(String username, String password);
+    TokenResponse refresh(String refreshToken);
+}
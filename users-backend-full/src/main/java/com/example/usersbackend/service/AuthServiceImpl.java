@@ -0,0 +1,112 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.TokenResponse;
+import com.example.usersbackend.security.JwtClaims;
+import com.example.usersbackend.security.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class issues access and refresh tokens.
+ * <p>
+ * A password login runs BCrypt, which is deliberately slow, so logins run on a small dedicated pool with a bounded
+ * queue instead of on the request threads. When the queue is full a login is rejected at once rather than waiting.
+ * A refresh only verifies the HMAC of the refresh token and looks the account up again, so it never hashes a
+ * password and runs on the calling thread.
+ */
+@Slf4j
+@Service
+public class AuthServiceImpl implements AuthService, DisposableBean {
+
+    private final AuthenticationManager authManager;
+    private final UserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final Executor loginExecutor;
+
+    @Autowired
+    public AuthServiceImpl(AuthenticationManager authManager, UserDetailsService userDetailsService, JwtUtil jwtUtil,
+                           @Value("${security.login.threads:4}") int threads,
+                           @Value("${security.login.queue-capacity:100}") int queueCapacity) {
+        this(authManager, userDetailsService, jwtUtil,
+                new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("login-")));
+    }
+
+    AuthServiceImpl(AuthenticationManager authManager, UserDetailsService userDetailsService, JwtUtil jwtUtil,
+                    Executor loginExecutor) {
+        this.authManager = authManager;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtil = jwtUtil;
+        this.loginExecutor = loginExecutor;
+    }
+
+    /**
+     * Checks the password on the login pool and issues tokens for the user.
+     * @param username the username
+     * @param password the password
+     * @return completes with the tokens, or exceptionally with an AuthenticationException if the credentials are wrong
+     * @throws RejectedExecutionException if too many logins are already waiting
+     */
+    @Override
+    public CompletableFuture<TokenResponse> login(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Authentication a = authManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+                return tokensFor((UserDetails) a.getPrincipal());
+            }, loginExecutor);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Login rejected, too many logins waiting");
+            throw ex;
+        }
+    }
+
+    /**
+     * Issues new tokens for the user of a refresh token, with the user's current roles.
+     * @param refreshToken the refresh token issued on login or on an earlier refresh
+     * @return the new tokens
+     * @throws BadCredentialsException if the refresh token is invalid or expired, or its account no longer exists
+     */
+    @Override
+    public TokenResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadCredentialsException("Refresh token is required");
+        }
+        try {
+            JwtClaims claims = jwtUtil.parseRefresh(refreshToken);
+            return tokensFor(userDetailsService.loadUserByUsername(claims.username()));
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException ex) {
+            log.debug("Refresh rejected: {}", ex.getMessage());
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+    }
+
+    private TokenResponse tokensFor(UserDetails user) {
+        return new TokenResponse(jwtUtil.generateToken(user), jwtUtil.generateRefreshToken(user.getUsername()),
+                jwtUtil.getExpirationMs() / 1000);
+    }
+
+    @Override
+    public void destroy() {
+        if (loginExecutor instanceof ExecutorService service) service.shutdownNow();
+    }
+}
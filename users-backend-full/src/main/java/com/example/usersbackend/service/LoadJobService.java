@@ -0,0 +1,16 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.LoadJobResponse;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for running loads of the remote users in the background.
+ */
+public interface LoadJobService {
+    LoadJobResponse start();
+    LoadJobResponse get(String jobId);
+    CompletableFuture<LoadJobResponse> completion(String jobId);
+    Instant lastSucceededAt();
+}
@@ -0,0 +1,182 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.LoadJobResponse;
+import com.example.usersbackend.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class runs loads of the remote users on a dedicated background thread, so the HTTP request that starts
+ * a load returns at once. Only one load runs at a time: starting a load while one is running returns the running
+ * job. The most recent jobs are kept so their outcome can be looked up.
+ */
+@Slf4j
+@Service
+public class LoadJobServiceImpl implements LoadJobService, DisposableBean {
+
+    static final int MAX_JOBS = 20;
+
+    enum State { RUNNING, SUCCEEDED, FAILED }
+
+    private final UserService userService;
+    private final ExecutorService executor;
+    private final Clock clock;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+    private Job running;
+    private volatile Instant lastSucceededAt;
+
+    @Autowired
+    public LoadJobServiceImpl(UserService userService) {
+        this(userService, Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-load-")),
+                Clock.systemUTC());
+    }
+
+    LoadJobServiceImpl(UserService userService, ExecutorService executor, Clock clock) {
+        this.userService = userService;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a load, or joins the one that is already running.
+     * @return the state of the started or running job
+     */
+    @Override
+    public synchronized LoadJobResponse start() {
+        if (running != null) {
+            log.info("Load job {} is already running", running.id);
+            return running.toResponse(clock.instant());
+        }
+        Job job = new Job(UUID.randomUUID().toString(), clock.instant());
+        jobs.put(job.id, job);
+        running = job;
+        executor.execute(() -> run(job));
+        log.info("Started load job {}", job.id);
+        return job.toResponse(clock.instant());
+    }
+
+    /**
+     * Returns the state of a job.
+     * @param jobId the ID returned when the job was started
+     * @return the state of the job
+     * @throws ResourceNotFoundException if the job is unknown or too old to be kept
+     */
+    @Override
+    public synchronized LoadJobResponse get(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) throw new ResourceNotFoundException("Load job " + jobId + " not found");
+        return job.toResponse(clock.instant());
+    }
+
+    /**
+     * Returns a future that completes with the final state of a job once it has finished, successfully or not.
+     * @param jobId the ID returned when the job was started
+     * @return the future final state of the job, already completed if the job has finished
+     * @throws ResourceNotFoundException if the job is unknown or too old to be kept
+     */
+    @Override
+    public synchronized CompletableFuture<LoadJobResponse> completion(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) throw new ResourceNotFoundException("Load job " + jobId + " not found");
+        return job.done.copy();
+    }
+
+    /**
+     * Returns when the last load succeeded, whether it was started by a request or by the scheduler.
+     * @return the time the last successful load finished, or null if none has succeeded yet
+     */
+    @Override
+    public Instant lastSucceededAt() {
+        return lastSucceededAt;
+    }
+
+    private void run(Job job) {
+        State state;
+        LoadResult result = null;
+        String error = null;
+        try {
+            LoadResult loaded = userService.loadFromRemote(job.progress);
+            if (job.progress.fellBack()) {
+                state = State.FAILED;
+                error = job.progress.lastError();
+            } else {
+                state = State.SUCCEEDED;
+                result = loaded;
+            }
+        } catch (Exception ex) {
+            state = State.FAILED;
+            error = job.progress.lastError() != null ? job.progress.lastError() : ex.getMessage();
+        }
+        LoadJobResponse response;
+        synchronized (this) {
+            job.finish(state, result, error, clock.instant());
+            if (running == job) running = null;
+            if (state == State.SUCCEEDED) lastSucceededAt = job.finishedAt;
+            response = job.toResponse(job.finishedAt);
+        }
+        log.info("Load job {} finished: {}", job.id, state);
+        job.done.complete(response);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One load; its mutable fields are guarded by the service lock.
+     */
+    private static final class Job {
+
+        private final String id;
+        private final Instant startedAt;
+        private final LoadProgress progress = new LoadProgress();
+        private final CompletableFuture<LoadJobResponse> done = new CompletableFuture<>();
+        private State state = State.RUNNING;
+        private Instant finishedAt;
+        private LoadResult result;
+        private String error;
+
+        Job(String id, Instant startedAt) {
+            this.id = id;
+            this.startedAt = startedAt;
+        }
+
+        void finish(State state, LoadResult result, String error, Instant finishedAt) {
+            this.state = state;
+            this.result = result;
+            this.error = error;
+            this.finishedAt = finishedAt;
+        }
+
+        LoadJobResponse toResponse(Instant now) {
+            long rows = progress.rowsWritten();
+            long millis = Math.max(1, Duration.between(startedAt, finishedAt != null ? finishedAt : now).toMillis());
+            return new LoadJobResponse(id, state.name(), startedAt, finishedAt, progress.attempts(),
+                    progress.pagesFetched(), rows, rows * 1000 / millis,
+                    result != null ? result.users() : null, result != null ? result.inserted() : null,
+                    result != null ? result.updated() : null, result != null ? result.deleted() : null,
+                    progress.unchanged(),
+                    error != null ? error : progress.lastError());
+        }
+    }
+}
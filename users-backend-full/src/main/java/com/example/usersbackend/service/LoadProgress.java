@@ -0,0 +1,64 @@
+package com.example.usersbackend.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class tracks one remote load while it runs. It is updated by the loading thread and may be read from any
+ * other thread; the page and row counts start over with every retry attempt.
+ */
+public class LoadProgress {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile String lastError;
+    private volatile boolean fallback;
+    private volatile boolean unchanged;
+
+    void attemptStarted() {
+        attempts.incrementAndGet();
+        pagesFetched.set(0);
+        rowsWritten.set(0);
+        unchanged = false;
+    }
+
+    void pageFetched() {
+        pagesFetched.incrementAndGet();
+    }
+
+    void rowsWritten(int rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    /**
+     * Records that the remote data has not changed since the last load, so nothing was written.
+     */
+    void markUnchanged() {
+        unchanged = true;
+    }
+
+    void attemptFailed(Throwable error) {
+        lastError = messageOf(error);
+    }
+
+    /**
+     * Records that the remote data could not be loaded and the stored users were returned instead.
+     */
+    void fellBack(Throwable error) {
+        fallback = true;
+        lastError = messageOf(error);
+    }
+
+    public int attempts() { return attempts.get(); }
+    public int pagesFetched() { return pagesFetched.get(); }
+    public long rowsWritten() { return rowsWritten.get(); }
+    public String lastError() { return lastError; }
+    public boolean fellBack() { return fallback; }
+    public boolean unchanged() { return unchanged; }
+
+    private static String messageOf(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.usersbackend.service;
+
+/**
+ * This class summarizes a finished load of the remote users: how many of them are stored now and what the load
+ * wrote. It only holds counts, never the users themselves, so it can be kept between loads at no cost.
+ * In REPLACE and SNAPSHOT mode every user is inserted again and the previous rows are dropped without being counted.
+ * @param users the number of remote users stored after the load
+ * @param inserted the number of users inserted
+ * @param updated the number of users updated
+ * @param deleted the number of users deleted because they were no longer in the remote data
+ * @param unchanged the number of users that were already stored as they are
+ */
+public record LoadResult(int users, int inserted, int updated, int deleted, int unchanged) {
+
+    /**
+     * The result before anything has been loaded.
+     */
+    public static final LoadResult NONE = new LoadResult(0, 0, 0, 0, 0);
+
+    /**
+     * Returns the result of a load that replaced all users.
+     * @param users the number of users written
+     * @return the result
+     */
+    static LoadResult replaced(int users) {
+        return new LoadResult(users, users, 0, 0, 0);
+    }
+
+    /**
+     * Returns the same stored users with nothing written, for a load that found the remote data unchanged.
+     * @return the result
+     */
+    LoadResult asUnchanged() {
+        return new LoadResult(users, 0, 0, 0, users);
+    }
+
+    /**
+     * Returns the same stored users with nothing written or compared, for a load that did not run.
+     * @return the result
+     */
+    LoadResult asStored() {
+        return new LoadResult(users, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.DummyUserResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This class reads a remote users response ({@code {"users": [...], "total": n, ...}}) with a streaming parser.
+ * Only one user is bound at a time and users are handed over in chunks as soon as they are parsed,
+ * so the whole payload is never held in memory.
+ */
+@Component
+public class RemoteUserReader {
+
+    /**
+     * What was found in a response besides the users themselves.
+     * @param usersPresent whether the response had a {@code users} array
+     * @param count the number of users read
+     * @param total the total number of users reported by the provider, or null if absent
+     */
+    public record Summary(boolean usersPresent, int count, Integer total) { }
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader userReader;
+
+    public RemoteUserReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.userReader = objectMapper.readerFor(DummyUserResponse.DummyUser.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Reads a response body, passing the users to the sink in chunks of at most {@code chunkSize}.
+     * The sink receives a new list each time and may keep it.
+     * @param body the response body; it is not closed
+     * @param chunkSize the maximum number of users per chunk
+     * @param sink receives each chunk, in response order
+     * @return the summary of the response; {@code usersPresent} is false for an empty body
+     * @throws IOException if the body is not valid JSON or not a JSON object
+     */
+    public Summary read(InputStream body, int chunkSize, Consumer<List<DummyUserResponse.DummyUser>> sink) throws IOException {
+        int size = Math.max(1, chunkSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken first = parser.nextToken();
+            if (first == null) return new Summary(false, 0, null);
+            if (first != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object but found " + first);
+            }
+
+            boolean usersPresent = false;
+            int count = 0;
+            Integer total = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("users".equals(name) && value == JsonToken.START_ARRAY) {
+                    usersPresent = true;
+                    List<DummyUserResponse.DummyUser> chunk = new ArrayList<>(size);
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        chunk.add(userReader.readValue(parser));
+                        count++;
+                        if (chunk.size() == size) {
+                            sink.accept(chunk);
+                            chunk = new ArrayList<>(size);
+                        }
+                    }
+                    if (!chunk.isEmpty()) sink.accept(chunk);
+                } else if ("total".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                    total = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new Summary(usersPresent, count, total);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.LoadJobResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * This class refreshes the users from the remote provider in the background, on its own scheduler thread.
+ * Refreshes are started as load jobs, so they run on the load executor and join a load that is already running.
+ * The next refresh is only scheduled once the started job has finished.
+ * <p>
+ * The time to the next refresh is the configured interval, spread by a random jitter so that instances do not
+ * refresh in step. While the {@code dummyApiCB} circuit breaker is open the interval doubles with every refresh,
+ * up to {@code max-backoff}. Whatever the backoff, a refresh is never scheduled later than {@code max-staleness}
+ * after the last successful load, and once that has passed refreshes follow the plain interval again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "external.dummy.refresh.enabled", havingValue = "true")
+public class UserRefreshScheduler implements DisposableBean {
+
+    static final String CIRCUIT_BREAKER = "dummyApiCB";
+
+    private final LoadJobService loadJobService;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private final DoubleSupplier random;
+    private final Instant startedAt;
+
+    @Value("${external.dummy.refresh.interval:15m}")
+    private Duration interval = Duration.ofMinutes(15);
+
+    @Value("${external.dummy.refresh.initial-delay:5s}")
+    private Duration initialDelay = Duration.ofSeconds(5);
+
+    @Value("${external.dummy.refresh.jitter:0.1}")
+    private double jitter = 0.1;
+
+    @Value("${external.dummy.refresh.max-backoff:2h}")
+    private Duration maxBackoff = Duration.ofHours(2);
+
+    @Value("${external.dummy.refresh.max-staleness:1h}")
+    private Duration maxStaleness = Duration.ofHours(1);
+
+    /**
+     * How many refreshes in a row found the circuit breaker open.
+     */
+    private int openStreak;
+
+    @Autowired
+    public UserRefreshScheduler(LoadJobService loadJobService, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this(loadJobService, circuitBreakerRegistry,
+                Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("user-refresh-")),
+                Clock.systemUTC(), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    UserRefreshScheduler(LoadJobService loadJobService, CircuitBreakerRegistry circuitBreakerRegistry,
+                         ScheduledExecutorService scheduler, Clock clock, DoubleSupplier random) {
+        this.loadJobService = loadJobService;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.random = random;
+        this.startedAt = clock.instant();
+    }
+
+    /**
+     * Schedules the first refresh once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Refreshing users every {} (jitter {}, max staleness {}), first in {}",
+                interval, jitter, maxStaleness, initialDelay);
+        schedule(initialDelay);
+    }
+
+    /**
+     * Starts a refresh and schedules the next one once its load job has finished, so the delay sees the circuit
+     * breaker state and last success that this load left behind. Never throws, so the schedule cannot die.
+     */
+    void refresh() {
+        CompletableFuture<LoadJobResponse> completion;
+        try {
+            LoadJobResponse job = loadJobService.start();
+            log.info("Scheduled refresh started load job {}", job.getJobId());
+            completion = loadJobService.completion(job.getJobId());
+        } catch (Exception ex) {
+            log.warn("Scheduled refresh could not start: {}", ex.getMessage());
+            schedule(nextDelay());
+            return;
+        }
+        completion.whenComplete((job, ex) -> schedule(nextDelay()));
+    }
+
+    /**
+     * Returns the time to the next refresh, from the interval, the circuit breaker state and the staleness budget.
+     * Once the data is already past its staleness budget, backoff is ignored and refreshes follow the interval.
+     */
+    synchronized Duration nextDelay() {
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER).getState();
+        Duration delay;
+        if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+            openStreak++;
+            delay = withJitter(backoff(openStreak));
+        } else {
+            openStreak = 0;
+            delay = withJitter(interval);
+        }
+
+        Instant lastSuccess = loadJobService.lastSucceededAt();
+        Instant staleAt = (lastSuccess != null ? lastSuccess : startedAt).plus(maxStaleness);
+        Duration untilStale = Duration.between(clock.instant(), staleAt);
+        if (untilStale.compareTo(delay) < 0) {
+            log.debug("Refreshing early to stay within the staleness budget");
+            Duration regular = withJitter(interval);
+            delay = untilStale.isNegative() ? (regular.compareTo(delay) < 0 ? regular : delay) : untilStale;
+        }
+        return delay;
+    }
+
+    private Duration withJitter(Duration delay) {
+        return delay.plusMillis((long) (delay.toMillis() * jitter * (2 * random.getAsDouble() - 1)));
+    }
+
+    private Duration backoff(int streak) {
+        Duration delay = interval;
+        for (int i = 0; i < streak && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void schedule(Duration delay) {
+        if (scheduler.isShutdown()) return;
+        log.debug("Next refresh in {}", delay);
+        scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
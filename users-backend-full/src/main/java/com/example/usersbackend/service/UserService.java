@@ -1,17 +1,31 @@
 package com.example.usersbackend.service;
 
+import com.example.usersbackend.dto.CursorPage;
 import com.example.usersbackend.dto.UserResponse;
 import com.example.usersbackend.model.User;
+import com.example.usersbackend.search.PrefixIndex;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for user service.
  */
 public interface UserService {
-    List<User> loadFromRemote();
+    LoadResult loadFromRemote(LoadProgress progress);
     List<UserResponse> getAll();
+    CursorPage<UserResponse> getAll(Long after, int limit);
     List<User> search(String query);
+    CursorPage<User> search(String query, Long after, int limit);
+    Map<String, List<User>> searchBatch(List<String> queries);
+    List<User> searchRanked(String query, int limit);
+    List<User> fuzzySearch(String query);
+    CursorPage<User> fuzzySearch(String query, Long after, int limit);
+    List<PrefixIndex.Completion> suggest(String prefix, int limit);
     User findById(Long id);
     User findByEmail(String email);
     User createUser(User user);
+    List<User> createUsers(List<User> users);
+    long exportNdjson(OutputStream out) throws IOException;
 }
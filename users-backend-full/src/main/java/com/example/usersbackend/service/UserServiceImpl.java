@@ -1,20 +1,79 @@
 package com.example.usersbackend.service;
 
+import com.example.usersbackend.dto.CursorPage;
 import com.example.usersbackend.dto.DummyUserResponse;
 import com.example.usersbackend.dto.UserResponse;
 import com.example.usersbackend.exception.ResourceNotFoundException;
 import com.example.usersbackend.model.User;
+import com.example.usersbackend.model.StagedUser;
+import com.example.usersbackend.repository.StagedUserRepository;
+import com.example.usersbackend.repository.UserFingerprint;
 import com.example.usersbackend.repository.UserRepository;
+import com.example.usersbackend.search.FuzzyIndex;
+import com.example.usersbackend.search.PrefixIndex;
+import com.example.usersbackend.search.RankedUserSearch;
+import com.example.usersbackend.search.SearchEngine;
+import com.example.usersbackend.search.SearchIndex;
+import com.example.usersbackend.search.SearchResultCache;
+import com.example.usersbackend.search.UserFields;
+import com.example.usersbackend.search.UserQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This class provides an implementation of the UserService interface for user management.
@@ -24,58 +83,488 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService{
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private static final int BULK_EMAIL_CHECK_SIZE = 1000;
+
+    private static final int BATCH_SEARCH_LOAD_SIZE = 1000;
+
+    /**
+     * How {@link #loadFromRemote(LoadProgress)} reconciles the remote users with the table.
+     */
+    public enum SyncMode {
+        /** Delete every user, then insert all remote users. */
+        REPLACE,
+        /** Insert new remote users, update changed ones and delete the ones that are gone; leave the rest untouched. */
+        DELTA,
+        /**
+         * Stage all remote users in a shadow table, then replace the users table with it in one short step.
+         * Readers keep seeing the previous users, and a failed load leaves them in place.
+         */
+        SNAPSHOT
+    }
+
     private final UserRepository userRepository;
     private final RestTemplate restTemplate;
+    private final SearchEngine searchEngine;
+    private final List<SearchIndex> searchIndexes;
+    private final RankedUserSearch rankedUserSearch;
+    private final PrefixIndex prefixIndex;
+    private final FuzzyIndex fuzzyIndex;
+    private final SearchResultCache searchResultCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final RemoteUserReader remoteUserReader;
+    private final StagedUserRepository stagedUserRepository;
 
     @Value("${external.api.users:https://dummyjson.com/users}")
     private String dummyBaseUrl;
 
-    public UserServiceImpl(UserRepository userRepository, RestTemplate restTemplate) {
+    @Value("${external.dummy.page-size:100}")
+    private int remotePageSize = 100;
+
+    @Value("${external.dummy.concurrency:4}")
+    private int remoteConcurrency = 4;
+
+    @Value("${external.dummy.chunk-size:100}")
+    private int remoteChunkSize = 100;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int jdbcBatchSize = 100;
+
+    @Value("${external.dummy.sync-mode:delta}")
+    private SyncMode syncMode = SyncMode.DELTA;
+
+    /**
+     * A page of the last successful load: its URI, the validators the provider sent with it and the hash of its body.
+     */
+    private record RemotePage(URI uri, String etag, String lastModified, String bodyHash) { }
+
+    private volatile List<RemotePage> lastLoadPages = List.of();
+
+    /**
+     * The result of the last successful load, or null before the first one.
+     */
+    private volatile LoadResult lastLoad;
+
+    public UserServiceImpl(UserRepository userRepository, RestTemplate restTemplate, SearchEngine searchEngine,
+                           List<SearchIndex> searchIndexes, RankedUserSearch rankedUserSearch, PrefixIndex prefixIndex,
+                           FuzzyIndex fuzzyIndex, SearchResultCache searchResultCache,
+                           EntityManager entityManager, ObjectMapper objectMapper, RemoteUserReader remoteUserReader,
+                           StagedUserRepository stagedUserRepository) {
         this.userRepository = userRepository;
         this.restTemplate = restTemplate;
+        this.searchEngine = searchEngine;
+        this.searchIndexes = searchIndexes;
+        this.rankedUserSearch = rankedUserSearch;
+        this.prefixIndex = prefixIndex;
+        this.fuzzyIndex = fuzzyIndex;
+        this.searchResultCache = searchResultCache;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.remoteUserReader = remoteUserReader;
+        this.stagedUserRepository = stagedUserRepository;
     }
 
     /**
-     * Fetches user data from a remote API and saves it to the database.
-     * @return a list of user objects
+     * Builds the search indexes from the users already stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        reindexAll(userRepository.findAll());
+    }
+
+    /**
+     * Fetches every user from a remote API, page by page, and saves them to the database.
+     * The first page tells how many users there are; the remaining pages are fetched in parallel,
+     * at most {@code external.dummy.concurrency} at a time, and each page is saved as soon as it arrives.
+     * Responses are parsed as a stream and saved in chunks of {@code external.dummy.chunk-size} users,
+     * with the persistence context cleared after each chunk, so a large page (or {@code page-size: 0},
+     * everything in one response) is never held in memory as a whole.
+     * In {@link SyncMode#DELTA} mode (the default) only new, changed and removed users are written,
+     * recognized by their remote ID and a hash of their fields. In {@link SyncMode#SNAPSHOT} mode the users table
+     * is not touched until every page has been staged.
+     * In every mode the search indexes only change once the transaction has committed, so a load that fails or
+     * rolls back leaves them matching the database.
+     * <p>
+     * The pages of the last successful load are remembered with their {@code ETag}, {@code Last-Modified} and body
+     * hash. A load first asks for those pages again with conditional requests; when every page answers
+     * {@code 304 Not Modified} or returns the same body, nothing is parsed or written and the load is reported
+     * as unchanged.
+     * <p>
+     * At most one load runs at a time ({@code dummyApiBulkhead}) and only a few may start per minute
+     * ({@code dummyApiRateLimiter}); rejected calls get the same fallback as an open circuit.
+     * @param progress receives the pages fetched and rows written by each attempt
+     * @return the counts of stored and written users
      */
     @Override
     @Transactional
     @Retry(name = "dummyApiRetry")
     @CircuitBreaker(name = "dummyApiCB", fallbackMethod = "loadFallback")
-    public List<User> loadFromRemote() {
-        log.info("Fetching users from {}", dummyBaseUrl);
+    @RateLimiter(name = "dummyApiRateLimiter")
+    @Bulkhead(name = "dummyApiBulkhead")
+    public LoadResult loadFromRemote(LoadProgress progress) {
+        log.info("Fetching users from {} ({} sync)", dummyBaseUrl, syncMode);
+        long start = System.nanoTime();
+        progress.attemptStarted();
 
         try {
-            DummyUserResponse resp = restTemplate.getForObject(dummyBaseUrl, DummyUserResponse.class);
+            List<RemotePage> previous = lastLoadPages;
+            LoadResult previousLoad = lastLoad;
+            if (previousLoad != null && remoteUnchanged(previous, progress)) {
+                progress.markUnchanged();
+                log.info("Remote users unchanged since the last load, {} pages checked in {} ms",
+                        previous.size(), (System.nanoTime() - start) / 1_000_000);
+                return previousLoad.asUnchanged();
+            }
 
-            if (resp == null || resp.getUsers() == null) {
-                log.error("No data returned from remote API");
-                throw new RuntimeException("No data returned from remote API");
+            NavigableMap<Integer, RemotePage> fetched = new ConcurrentSkipListMap<>();
+            if (syncMode == SyncMode.DELTA) {
+                DeltaSync sync = new DeltaSync(userRepository.findRemoteFingerprints());
+                int pages = fetchAllPages(chunk -> progress.rowsWritten(sync.apply(chunk)), progress, fetched);
+                List<Long> removed = sync.deleteUnseen();
+                progress.rowsWritten(removed.size());
+                applyToIndexes(sync.written, removed);
+                log.info("Synced users in {} pages: {} inserted, {} updated, {} deleted, {} unchanged",
+                        pages, sync.inserted, sync.updated, removed.size(), sync.unchanged);
+                logThroughput("Synced", sync.inserted + sync.updated + sync.unchanged, start);
+                return remember(fetched, new LoadResult(sync.inserted + sync.updated + sync.unchanged,
+                        sync.inserted, sync.updated, removed.size(), sync.unchanged));
             }
 
-            List<User> users = resp.getUsers().stream()
-                    .map(this::mapToUser)
-                    .collect(Collectors.toList());
+            if (syncMode == SyncMode.SNAPSHOT) {
+                stagedUserRepository.deleteAllInBatch();
+                Set<Long> staged = new HashSet<>();
+                int pages = fetchAllPages(chunk -> progress.rowsWritten(stageChunk(chunk, staged)), progress, fetched);
+                List<User> published = publishSnapshot();
+                log.info("Published a snapshot of {} users from {} pages", published.size(), pages);
+                logThroughput("Loaded", published.size(), start);
+                return remember(fetched, LoadResult.replaced(published.size()));
+            }
 
-            userRepository.deleteAll();
-            userRepository.saveAll(users);
+            userRepository.deleteAllInBatch();
+            List<User> saved = new ArrayList<>();
+            int pages = fetchAllPages(chunk -> {
+                saved.addAll(saveChunk(chunk));
+                progress.rowsWritten(chunk.size());
+            }, progress, fetched);
+            afterCommit(() -> reindexAll(saved));
 
-            log.info("Loaded {} users into H2 database successfully", users.size());
-            return users;
+            log.info("Loaded {} users in {} pages into H2 database", saved.size(), pages);
+            logThroughput("Loaded", saved.size(), start);
+            return remember(fetched, LoadResult.replaced(saved.size()));
 
         } catch (Exception ex) {
             log.error("Error while fetching from remote API: {}", ex.getMessage());
+            progress.attemptFailed(ex);
             throw new RuntimeException("Remote API call failed", ex);
         }
     }
 
     /**
-     * Fallback method if circuit breaker trips.
+     * Asks for the pages of the last load again with conditional requests, at most {@code remoteConcurrency} at
+     * a time, and stops at the first page that has changed. A failed request counts as a change.
+     * @return true if there was a last load and none of its pages has changed
+     */
+    private boolean remoteUnchanged(List<RemotePage> pages, LoadProgress progress) throws InterruptedException {
+        if (pages.isEmpty()) return false;
+        int threads = Math.max(1, Math.min(remoteConcurrency, pages.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("remote-check-"));
+        try {
+            List<Future<Boolean>> checks = new ArrayList<>();
+            for (RemotePage page : pages) {
+                checks.add(pool.submit(() -> pageUnchanged(page)));
+            }
+            for (Future<Boolean> check : checks) {
+                if (!check.get()) return false;
+                progress.pageFetched();
+            }
+            return true;
+        } catch (ExecutionException ex) {
+            log.warn("Conditional request failed, loading all pages: {}", ex.getCause().getMessage());
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Requests a page with the validators it was last fetched with. Without {@code 304 Not Modified}, the body
+     * is hashed as it is downloaded, but not parsed.
+     */
+    private boolean pageUnchanged(RemotePage page) {
+        Boolean unchanged = restTemplate.execute(page.uri(), HttpMethod.GET, request -> {
+            HttpHeaders headers = request.getHeaders();
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (page.etag() != null) headers.setIfNoneMatch(page.etag());
+            if (page.lastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, page.lastModified());
+        }, response -> response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                || page.bodyHash().equals(bodyHash(response.getBody())));
+        log.debug("Page {} unchanged: {}", page.uri(), unchanged);
+        return Boolean.TRUE.equals(unchanged);
+    }
+
+    /**
+     * Remembers the pages and result of a load once its transaction has committed, so that a rolled-back load is
+     * not mistaken for the current data.
+     * @return the result
+     */
+    private LoadResult remember(NavigableMap<Integer, RemotePage> fetched, LoadResult result) {
+        List<RemotePage> pages = List.copyOf(fetched.values());
+        afterCommit(() -> {
+            lastLoadPages = pages;
+            lastLoad = result;
+        });
+        return result;
+    }
+
+    /**
+     * Fetches every remote page and passes its users, chunk by chunk and in remote order, to the handler.
+     * The handler always runs on the calling thread.
+     * @param fetched receives every page fetched, keyed by its offset
+     * @return the number of pages fetched
+     */
+    private int fetchAllPages(Consumer<List<DummyUserResponse.DummyUser>> handler, LoadProgress progress,
+                              Map<Integer, RemotePage> fetched) throws InterruptedException {
+        RemoteUserReader.Summary first = fetchPage(0, Math.max(0, remotePageSize), handler, fetched);
+        progress.pageFetched();
+        int received = first.count();
+        int total = received == 0 || first.total() == null ? received : first.total();
+        // the provider may cap the page size below what was asked for
+        int pageSize = Math.max(1, remotePageSize <= 0 ? received : Math.min(remotePageSize, received));
+
+        List<Integer> skips = new ArrayList<>();
+        for (int skip = received; skip < total; skip += pageSize) {
+            skips.add(skip);
+        }
+        if (!skips.isEmpty()) {
+            fetchRemainingPages(skips, pageSize, handler, progress, fetched);
+        }
+        return skips.size() + 1;
+    }
+
+    /**
+     * Fetches the given pages in parallel and hands each one to the handler on the calling thread, which owns
+     * the transaction. Pages are handled in order, so generated IDs follow the remote order, and no more than
+     * {@code remoteConcurrency} pages are requested or waiting to be handled at any time.
+     */
+    private void fetchRemainingPages(List<Integer> skips, int pageSize,
+                                     Consumer<List<DummyUserResponse.DummyUser>> handler, LoadProgress progress,
+                                     Map<Integer, RemotePage> fetched) throws InterruptedException {
+        int threads = Math.max(1, Math.min(remoteConcurrency, skips.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("remote-page-"));
+        try {
+            Deque<Future<List<List<DummyUserResponse.DummyUser>>>> inFlight = new ArrayDeque<>();
+            Iterator<Integer> pending = skips.iterator();
+            while (inFlight.size() < threads) {
+                inFlight.add(pool.submit(bufferPage(pending.next(), pageSize, fetched)));
+            }
+            while (!inFlight.isEmpty()) {
+                List<List<DummyUserResponse.DummyUser>> page = inFlight.poll().get();
+                if (pending.hasNext()) {
+                    inFlight.add(pool.submit(bufferPage(pending.next(), pageSize, fetched)));
+                }
+                page.forEach(handler);
+                progress.pageFetched();
+            }
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("Failed to fetch a page of users", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a task that fetches a page on a worker thread and keeps its chunks until the caller saves them.
+     */
+    private Callable<List<List<DummyUserResponse.DummyUser>>> bufferPage(int skip, int limit,
+                                                                         Map<Integer, RemotePage> fetched) {
+        return () -> {
+            List<List<DummyUserResponse.DummyUser>> chunks = new ArrayList<>();
+            fetchPage(skip, limit, chunks::add, fetched);
+            return chunks;
+        };
+    }
+
+    /**
+     * Requests one page and streams its users to the sink in chunks while the response is being read.
+     * The page's validators and body hash are added to {@code fetched}.
+     */
+    private RemoteUserReader.Summary fetchPage(int skip, int limit, Consumer<List<DummyUserResponse.DummyUser>> sink,
+                                               Map<Integer, RemotePage> fetched) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(dummyBaseUrl)
+                .replaceQueryParam("limit", limit)
+                .replaceQueryParam("skip", skip)
+                .build().toUri();
+        RemoteUserReader.Summary summary = restTemplate.execute(uri, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> {
+                    DigestInputStream body = new DigestInputStream(response.getBody(), sha256());
+                    RemoteUserReader.Summary read = remoteUserReader.read(body, remoteChunkSize, sink);
+                    body.transferTo(OutputStream.nullOutputStream());
+                    fetched.put(skip, new RemotePage(uri, response.getHeaders().getETag(),
+                            response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                            HexFormat.of().formatHex(body.getMessageDigest().digest())));
+                    return read;
+                });
+        if (summary == null || !summary.usersPresent()) {
+            log.error("No data returned from remote API for skip={}", skip);
+            throw new RuntimeException("No data returned from remote API");
+        }
+        log.debug("Fetched {} users at skip={}", summary.count(), skip);
+        return summary;
+    }
+
+    /**
+     * Saves one chunk of remote users and detaches them, so the persistence context stays small.
+     */
+    private List<User> saveChunk(List<DummyUserResponse.DummyUser> chunk) {
+        List<User> saved = userRepository.saveAll(chunk.stream().map(this::mapToUser).collect(Collectors.toList()));
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    /**
+     * Writes a chunk of remote users to the staging table, skipping remote IDs that were already staged.
+     * @return the number of rows staged
+     */
+    private int stageChunk(List<DummyUserResponse.DummyUser> chunk, Set<Long> staged) {
+        List<StagedUser> rows = new ArrayList<>(chunk.size());
+        for (DummyUserResponse.DummyUser dummy : chunk) {
+            User user = mapToUser(dummy);
+            if (user.getRemoteId() != null && !staged.add(user.getRemoteId())) {
+                log.warn("Skipping duplicate remote user {}", user.getRemoteId());
+                continue;
+            }
+            rows.add(StagedUser.of(user));
+        }
+        stagedUserRepository.saveAll(rows);
+        entityManager.flush();
+        entityManager.clear();
+        return rows.size();
+    }
+
+    /**
+     * Replaces the users table with the staged users using set-based statements, so the rows of the users table
+     * are only locked for the last moment of the load. The search indexes are rebuilt after the commit.
+     */
+    private List<User> publishSnapshot() {
+        userRepository.deleteAllInBatch();
+        int copied = stagedUserRepository.copyIntoUsers();
+        stagedUserRepository.deleteAllInBatch();
+        List<User> users = userRepository.findAll();
+        log.debug("Copied {} staged users into the users table", copied);
+        afterCommit(() -> reindexAll(users));
+        return users;
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away outside a transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * The state of one delta sync: the fingerprints of the stored remote users not seen yet in the
+     * remote data, and the users written so far.
+     */
+    private final class DeltaSync {
+
+        private final Map<Long, UserFingerprint> unseen = new HashMap<>();
+        private final Set<Long> seen = new HashSet<>();
+        private final List<User> written = new ArrayList<>();
+        private int inserted;
+        private int updated;
+        private int unchanged;
+
+        DeltaSync(List<UserFingerprint> fingerprints) {
+            fingerprints.forEach(f -> unseen.put(f.remoteId(), f));
+        }
+
+        /**
+         * Inserts the new users of a chunk and updates the changed ones; the changed rows are read with one query.
+         * @return the number of rows inserted or updated
+         */
+        int apply(List<DummyUserResponse.DummyUser> chunk) {
+            int before = written.size();
+            List<User> inserts = new ArrayList<>();
+            Map<Long, User> changes = new HashMap<>();
+            for (DummyUserResponse.DummyUser dummy : chunk) {
+                User incoming = mapToUser(dummy);
+                Long remoteId = incoming.getRemoteId();
+                if (remoteId != null && !seen.add(remoteId)) {
+                    log.warn("Skipping duplicate remote user {}", remoteId);
+                    continue;
+                }
+                UserFingerprint current = remoteId == null ? null : unseen.remove(remoteId);
+                if (current == null) {
+                    inserts.add(incoming);
+                } else if (incoming.getContentHash().equals(current.contentHash())) {
+                    unchanged++;
+                } else {
+                    changes.put(current.id(), incoming);
+                }
+            }
+            if (!changes.isEmpty()) {
+                for (User row : userRepository.findAllById(changes.keySet())) {
+                    copyRemoteFields(changes.get(row.getId()), row);
+                    written.add(row);
+                    updated++;
+                }
+            }
+            if (!inserts.isEmpty()) {
+                written.addAll(userRepository.saveAll(inserts));
+                inserted += inserts.size();
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return written.size() - before;
+        }
+
+        /**
+         * Deletes the stored remote users that were not in the remote data, a batch of IDs per statement.
+         * @return the IDs of the deleted users
+         */
+        List<Long> deleteUnseen() {
+            List<Long> ids = unseen.values().stream().map(UserFingerprint::id).collect(Collectors.toList());
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                userRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(ids.size(), from + DELETE_BATCH_SIZE)));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Fallback method if the circuit breaker trips or the call is rejected by the bulkhead or rate limiter.
+     * It reports the users of the last successful load, which stay in place, without reading the database, so that
+     * callers piling up while the provider is failing cost nothing.
      */
-    public List<User> loadFallback(Throwable throwable) {
+    public LoadResult loadFallback(LoadProgress progress, Throwable throwable) {
         log.warn("Fallback triggered for loadFromRemote(): {}", throwable.getMessage());
-        return userRepository.findAll(); // Return existing data from DB if available
+        progress.fellBack(throwable);
+        LoadResult last = lastLoad;
+        return last != null ? last.asStored() : LoadResult.NONE;
     }
 
     /**
@@ -95,7 +584,55 @@ public class UserServiceImpl implements UserService{
         }
 
         log.info("Creating new user: {} {}", user.getFirstName(), user.getLastName());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        index(saved);
+        return saved;
+    }
+
+    /**
+     * Saves many new users at once. Emails are checked with one query per {@value #BULK_EMAIL_CHECK_SIZE} users,
+     * and the users are inserted as JDBC batches of {@code hibernate.jdbc.batch_size}, with the persistence
+     * context cleared after each batch. Either all users are created or none; the search indexes only see them
+     * once the transaction has committed.
+     * @param users the users to save; IDs are assigned by the server
+     * @return the saved users, in request order
+     */
+    @Override
+    @Transactional
+    public List<User> createUsers(List<User> users) {
+        long start = System.nanoTime();
+        Set<String> emails = new HashSet<>();
+        for (User user : users) {
+            if (user.getId() != null) {
+                throw new IllegalArgumentException("IDs are assigned by the server; remove id " + user.getId());
+            }
+            if (StringUtils.isNotBlank(user.getEmail()) && !emails.add(user.getEmail())) {
+                throw new IllegalArgumentException("Email " + user.getEmail() + " is used more than once");
+            }
+        }
+        List<String> emailList = new ArrayList<>(emails);
+        for (int from = 0; from < emailList.size(); from += BULK_EMAIL_CHECK_SIZE) {
+            List<String> taken = userRepository.findExistingEmails(
+                    emailList.subList(from, Math.min(emailList.size(), from + BULK_EMAIL_CHECK_SIZE)));
+            if (!taken.isEmpty()) {
+                throw new IllegalArgumentException("User with email " + taken.get(0) + " already exists");
+            }
+        }
+
+        List<User> saved = new ArrayList<>(users.size());
+        int batchSize = Math.max(1, jdbcBatchSize);
+        for (int from = 0; from < users.size(); from += batchSize) {
+            saved.addAll(userRepository.saveAll(users.subList(from, Math.min(users.size(), from + batchSize))));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        List<User> created = List.copyOf(saved);
+        afterCommit(() -> {
+            searchIndexes.forEach(index -> index.apply(created, List.of()));
+            searchResultCache.invalidateAll();
+        });
+        logThroughput("Bulk created", saved.size(), start);
+        return saved;
     }
 
     /**
@@ -111,14 +648,163 @@ public class UserServiceImpl implements UserService{
     }
 
     /**
-     * Searches for users in the database based on a query string.
+     * Retrieves one page of users ordered by ID.
+     * @param after the ID of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users to return, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page of users and the cursor for the next page
+     */
+    @Override
+    public CursorPage<UserResponse> getAll(Long after, int limit) {
+        int size = pageSize(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(cursor(after), Limit.of(size + 1));
+        return toPage(rows, size, UserResponse::new);
+    }
+
+    /**
+     * Writes every user to the given stream as newline-delimited JSON, ordered by ID.
+     * Rows are read through a database cursor and the persistence context is cleared every
+     * {@value #EXPORT_BATCH_SIZE} rows, so memory use does not grow with the table size.
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of users written
+     * @throws IOException if writing to the stream fails
+     */
+    @Override
+    @Transactional
+    public long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(User.class);
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> it = users.iterator();
+            while (it.hasNext()) {
+                out.write(writer.writeValueAsBytes(it.next()));
+                out.write('\n');
+                if (++count % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Exported {} users as NDJSON", count);
+        return count;
+    }
+
+    /**
+     * Searches for users based on a query string.
+     * Results are cached by query. Plain and field-qualified queries such as {@code email:foo@x.com age:30..40}
+     * are answered by the configured {@link SearchEngine}; queries it does not support fall back to the database.
      * @param query the query string to search for
-     * @return a list of user objects that match the query
+     * @return a list of user objects that match the query, ordered by ID
      */
     @Override
     public List<User> search(String query) {
         String qlow = query == null ? "" : query.toLowerCase();
-        return userRepository.freeTextSearch(qlow);
+        return searchResultCache.get(qlow, () -> {
+            if (!searchEngine.supports(qlow)) {
+                return userRepository.freeTextSearch(qlow);
+            }
+            return findAllInIdOrder(searchEngine.search(qlow));
+        });
+    }
+
+    /**
+     * Retrieves one page of users matching a query string, ordered by ID.
+     * Only the IDs of the requested page are loaded from the database.
+     * @param query the query string to search for
+     * @param after the ID of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users to return, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page of matching users and the cursor for the next page
+     */
+    @Override
+    public CursorPage<User> search(String query, Long after, int limit) {
+        String qlow = query == null ? "" : query.toLowerCase();
+        int size = pageSize(limit);
+        if (!searchEngine.supports(qlow)) {
+            return toPage(userRepository.freeTextSearchAfter(qlow, cursor(after), Limit.of(size + 1)), size, Function.identity());
+        }
+        List<Long> pageIds = searchEngine.searchAfter(qlow, cursor(after), size + 1);
+        return toPage(findAllInIdOrder(pageIds), size, Function.identity());
+    }
+
+    /**
+     * Evaluates several search queries together and returns the results keyed by query.
+     * Cached queries are answered from the cache. The remaining ones are handed to the search engine as one
+     * batch, which the {@code jpa} engine answers with a single scan, and their matches loaded together, with
+     * one database round trip per {@value #BATCH_SEARCH_LOAD_SIZE} distinct users so the IN list stays bounded.
+     * @param queries the query strings to search for
+     * @return the matching users of every distinct query, ordered by ID, in request order
+     */
+    @Override
+    @Transactional
+    public Map<String, List<User>> searchBatch(List<String> queries) {
+        Map<String, String> normalized = new LinkedHashMap<>();
+        for (String query : queries) {
+            normalized.putIfAbsent(query, query == null ? "" : query.toLowerCase());
+        }
+        Map<String, List<User>> byQuery = searchResultCache.getAll(normalized.values(), this::searchUncached);
+
+        Map<String, List<User>> results = new LinkedHashMap<>();
+        normalized.forEach((query, qlow) -> results.put(query, byQuery.get(qlow)));
+        return results;
+    }
+
+    /**
+     * Searches for the most relevant users for a query string.
+     * Exact, prefix and substring matches on firstName, lastName, username and email are scored with
+     * per-field weights and only the best results are loaded from the database.
+     * @param query the query string to search for, at least three characters long
+     * @param limit the maximum number of users to return, capped at {@link #MAX_PAGE_SIZE}
+     * @return the matching users, most relevant first
+     */
+    @Override
+    public List<User> searchRanked(String query, int limit) {
+        List<Long> ids = rankedUserSearch.topK(query, pageSize(limit)).stream()
+                .map(RankedUserSearch.ScoredId::id)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) return List.of();
+        Map<Long, User> byId = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Searches for users whose firstName or lastName is within a small edit distance of each query word,
+     * so that misspelled names such as "Jhon" still find "John".
+     * @param query the query string to search for
+     * @return a list of matching users, ordered by ID
+     */
+    @Override
+    public List<User> fuzzySearch(String query) {
+        return findAllInIdOrder(fuzzyIndex.search(query));
+    }
+
+    /**
+     * Retrieves one page of users matching a query string with typos allowed, ordered by ID.
+     * Only the IDs of the requested page are loaded from the database.
+     * @param query the query string to search for
+     * @param after the ID of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users to return, capped at {@link #MAX_PAGE_SIZE}
+     * @return the page of matching users and the cursor for the next page
+     */
+    @Override
+    public CursorPage<User> fuzzySearch(String query, Long after, int limit) {
+        int size = pageSize(limit);
+        List<Long> ids = fuzzyIndex.search(query);
+        int from = Collections.binarySearch(ids, cursor(after));
+        from = from >= 0 ? from + 1 : -from - 1;
+        List<Long> pageIds = ids.subList(from, Math.min(ids.size(), from + size + 1));
+        return toPage(findAllInIdOrder(pageIds), size, Function.identity());
+    }
+
+    /**
+     * Suggests completions for a prefix of a firstName, lastName or username.
+     * @param prefix the prefix typed so far
+     * @param limit the maximum number of completions
+     * @return the completions, most frequent first
+     */
+    @Override
+    public List<PrefixIndex.Completion> suggest(String prefix, int limit) {
+        return prefixIndex.suggest(prefix, limit);
     }
 
     /**
@@ -144,6 +830,102 @@ public class UserServiceImpl implements UserService{
         return u;
     }
 
+    /**
+     * Computes the results of several lower-cased queries without consulting the cache.
+     */
+    private Map<String, List<User>> searchUncached(List<String> queries) {
+        List<String> supported = new ArrayList<>();
+        Map<String, List<User>> results = new HashMap<>();
+        for (String qlow : queries) {
+            if (searchEngine.supports(qlow)) supported.add(qlow);
+            else results.put(qlow, userRepository.freeTextSearch(qlow));
+        }
+        if (supported.isEmpty()) return results;
+
+        Map<String, List<Long>> idsByQuery = searchEngine.searchBatch(supported);
+        Set<Long> allIds = new HashSet<>();
+        idsByQuery.values().forEach(allIds::addAll);
+        List<Long> idList = new ArrayList<>(allIds);
+        Map<Long, User> users = new HashMap<>();
+        for (int from = 0; from < idList.size(); from += BATCH_SEARCH_LOAD_SIZE) {
+            userRepository.findAllById(idList.subList(from, Math.min(idList.size(), from + BATCH_SEARCH_LOAD_SIZE)))
+                    .forEach(user -> users.put(user.getId(), user));
+        }
+        idsByQuery.forEach((qlow, ids) ->
+                results.put(qlow, ids.stream().map(users::get).filter(Objects::nonNull).collect(Collectors.toList())));
+        log.debug("Batch search evaluated {} queries, {} in the search engine", queries.size(), supported.size());
+        return results;
+    }
+
+    /**
+     * Returns whether the user would be part of the result of a (cached) search query.
+     */
+    private boolean matchesQuery(User user, String qlow) {
+        if (UserQuery.isFieldQuery(qlow)) {
+            return UserQuery.parse(qlow).matches(user);
+        }
+        UserFields fields = UserFields.of(user);
+        return fields.firstName().contains(qlow) || fields.lastName().contains(qlow) || fields.ssn().contains(qlow);
+    }
+
+    /**
+     * Replaces the contents of every search index and drops all cached search results.
+     */
+    private void reindexAll(List<User> users) {
+        searchIndexes.forEach(index -> index.rebuild(users));
+        searchResultCache.invalidateAll();
+    }
+
+    private static void logThroughput(String action, int count, long startNanos) {
+        long ms = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("{} {} users in {} ms ({} users/s)", action, count, ms, count * 1000L / ms);
+    }
+
+    /**
+     * Applies the users written and removed by a delta sync to every search index, once the transaction has
+     * committed.
+     */
+    private void applyToIndexes(List<User> written, List<Long> removed) {
+        if (written.isEmpty() && removed.isEmpty()) return;
+        afterCommit(() -> {
+            searchIndexes.forEach(index -> index.apply(written, removed));
+            searchResultCache.invalidateAll();
+        });
+    }
+
+    /**
+     * Adds a user to every search index and drops the cached search results it would change.
+     */
+    private void index(User user) {
+        searchIndexes.forEach(index -> index.add(user));
+        searchResultCache.invalidateMatching(q -> matchesQuery(user, q));
+    }
+
+    private List<User> findAllInIdOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        List<User> users = new ArrayList<>(userRepository.findAllById(ids));
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static long cursor(Long after) {
+        return after == null ? Long.MIN_VALUE : after;
+    }
+
+    /**
+     * Builds a page from rows fetched with one extra row, which only signals that another page exists.
+     */
+    private static <T> CursorPage<T> toPage(List<User> rows, int size, Function<User, T> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<User> pageRows = hasMore ? rows.subList(0, size) : rows;
+        Long next = hasMore ? pageRows.get(size - 1).getId() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
     /**
      * Maps a DummyUserResponse.DummyUser object to a User object.
      * @param dummyUser the DummyUserResponse.DummyUser object to map
@@ -151,8 +933,8 @@ public class UserServiceImpl implements UserService{
      */
     private User mapToUser(DummyUserResponse.DummyUser dummyUser) {
         String addressJson = dummyUser.getAddress() != null ? dummyUser.getAddress().toString() : null;
-        return User.builder()
-                .id(dummyUser.getId() == null ? null : dummyUser.getId().longValue())
+        User user = User.builder()
+                .remoteId(dummyUser.getId())
                 .firstName(dummyUser.getFirstName())
                 .lastName(dummyUser.getLastName())
                 .email(dummyUser.getEmail())
@@ -164,5 +946,54 @@ public class UserServiceImpl implements UserService{
                 .role("User")
                 .addressJson(addressJson)
                 .build();
+        user.setContentHash(contentHash(user));
+        return user;
+    }
+
+    /**
+     * Copies the fields that come from the remote provider onto a stored user, keeping its ID and role.
+     */
+    private static void copyRemoteFields(User from, User to) {
+        to.setFirstName(from.getFirstName());
+        to.setLastName(from.getLastName());
+        to.setEmail(from.getEmail());
+        to.setAge(from.getAge());
+        to.setPhone(from.getPhone());
+        to.setUsername(from.getUsername());
+        to.setGender(from.getGender());
+        to.setSsn(from.getSsn());
+        to.setAddressJson(from.getAddressJson());
+        to.setContentHash(from.getContentHash());
+    }
+
+    /**
+     * Returns a SHA-256 hash of the fields copied by {@link #copyRemoteFields}, as 64 hex characters.
+     */
+    static String contentHash(User user) {
+        MessageDigest digest = sha256();
+        for (Object field : new Object[] { user.getFirstName(), user.getLastName(), user.getEmail(), user.getAge(),
+                user.getPhone(), user.getUsername(), user.getGender(), user.getSsn(), user.getAddressJson() }) {
+            // null and "" must hash differently, and field boundaries must not shift
+            digest.update(field == null ? new byte[] { 0 } : ("\u0001" + field).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0x1f);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the SHA-256 hash of everything left in the stream, in hex.
+     */
+    static String bodyHash(InputStream body) throws IOException {
+        DigestInputStream in = new DigestInputStream(body, sha256());
+        in.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(in.getMessageDigest().digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.example.usersbackend.config;
 
 import com.example.usersbackend.security.JwtAuthFilter;
+import com.example.usersbackend.security.RateLimitFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -23,7 +24,7 @@ class SecurityConfigTest {
     void setUp() {
         jwtAuthFilter = Mockito.mock(JwtAuthFilter.class);
         userDetailsService = Mockito.mock(UserDetailsService.class);
-        securityConfig = new SecurityConfig(jwtAuthFilter, userDetailsService);
+        securityConfig = new SecurityConfig(jwtAuthFilter, userDetailsService, Mockito.mock(RateLimitFilter.class));
     }
 
     @Test
@@ -1,69 +1,70 @@
 package com.example.usersbackend.controller;
 
-import com.example.usersbackend.security.JwtUtil;
+import com.example.usersbackend.dto.TokenResponse;
+import com.example.usersbackend.service.AuthService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.security.authentication.BadCredentialsException;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class AuthControllerTest {
 
-    private AuthenticationManager authManager;
-    private JwtUtil jwtUtil;
+    private AuthService authService;
     private AuthController authController;
 
     @BeforeEach
     void setUp() {
-        authManager = mock(AuthenticationManager.class);
-        jwtUtil = mock(JwtUtil.class);
-        authController = new AuthController(authManager, jwtUtil);
+        authService = mock(AuthService.class);
+        authController = new AuthController(authService);
     }
 
     @Test
     void testLogin_ReturnsJwtToken() {
-        String username = "admin";
-        String password = "admin123";
-        String token = "fake-jwt-token";
+        TokenResponse tokens = new TokenResponse("fake-jwt-token", "fake-refresh-token", 900);
+        when(authService.login("admin", "admin123")).thenReturn(CompletableFuture.completedFuture(tokens));
 
-        User principal = new User(username, password, java.util.Collections.emptyList());
-        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
-
-        when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(jwtUtil.generateToken(username)).thenReturn(token);
-
-        ResponseEntity<?> response = authController.login(Map.of("username", username, "password", password));
+        ResponseEntity<TokenResponse> response = authController.login(Map.of("username", "admin", "password", "admin123")).join();
 
         assertEquals(200, response.getStatusCode().value());
-        assertTrue(response.getBody() instanceof Map);
+        assertEquals("fake-jwt-token", response.getBody().getToken());
+        assertEquals("fake-refresh-token", response.getBody().getRefreshToken());
+        verify(authService, times(1)).login("admin", "admin123");
+    }
 
-        @SuppressWarnings("unchecked")
-        Map<String, String> body = (Map<String, String>) response.getBody();
+    @Test
+    void testLogin_AuthenticationFails_CompletesExceptionally() {
+        when(authService.login("wrong", "bad"))
+                .thenReturn(CompletableFuture.failedFuture(new BadCredentialsException("Invalid credentials")));
 
-        assertEquals(token, body.get("token"));
-        verify(authManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil, times(1)).generateToken(username);
+        CompletionException ex = assertThrows(CompletionException.class, () ->
+                authController.login(Map.of("username", "wrong", "password", "bad")).join()
+        );
+
+        assertTrue(ex.getCause() instanceof BadCredentialsException);
     }
 
     @Test
-    void testLogin_AuthenticationFails_ThrowsException() {
-        when(authManager.authenticate(any())).thenThrow(new RuntimeException("Invalid credentials"));
+    void testRefresh_ReturnsNewTokens() {
+        TokenResponse tokens = new TokenResponse("new-access", "new-refresh", 900);
+        when(authService.refresh("old-refresh")).thenReturn(tokens);
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () ->
-                authController.login(Map.of("username", "wrong", "password", "bad"))
-        );
+        ResponseEntity<TokenResponse> response = authController.refresh(Map.of("refreshToken", "old-refresh"));
 
-        assertEquals("Invalid credentials", ex.getMessage());
-        verify(authManager, times(1)).authenticate(any());
-        verify(jwtUtil, never()).generateToken(anyString());
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("new-access", response.getBody().getToken());
     }
-}
 
+    @Test
+    void testRefresh_InvalidToken_ThrowsException() {
+        when(authService.refresh("bad")).thenThrow(new BadCredentialsException("Invalid refresh token"));
+
+        assertThrows(BadCredentialsException.class, () -> authController.refresh(Map.of("refreshToken", "bad")));
+    }
+}
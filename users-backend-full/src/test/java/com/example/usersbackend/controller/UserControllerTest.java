@@ -1,6 +1,11 @@
 package com.example.usersbackend.controller;
 
+import com.example.usersbackend.dto.CursorPage;
+import com.example.usersbackend.dto.LoadJobResponse;
+import com.example.usersbackend.dto.UserResponse;
 import com.example.usersbackend.model.User;
+import com.example.usersbackend.search.PrefixIndex;
+import com.example.usersbackend.service.LoadJobService;
 import com.example.usersbackend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +18,17 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserControllerTest {
@@ -24,6 +36,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoadJobService loadJobService;
+
     @InjectMocks
     private UserController userController;
 
@@ -37,16 +52,28 @@ class UserControllerTest {
 
     @Test
     void testLoadUsers() throws Exception {
-        List<User> users = Arrays.asList(new User(), new User());
-        when(userService.loadFromRemote()).thenReturn(users);
+        LoadJobResponse job = new LoadJobResponse("job-1", "RUNNING", Instant.now(), null, 1, 0, 0, 0, null, null, null, null, false, null);
+        when(loadJobService.start()).thenReturn(job);
 
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/users/load")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
+        assertEquals(202, result.getResponse().getStatus());
+        assertEquals("/api/users/load/job-1", result.getResponse().getHeader("Location"));
+        assertEquals(true, result.getResponse().getContentAsString().contains("\"jobId\":\"job-1\""));
+        verify(userService, never()).loadFromRemote(any());
+    }
+
+    @Test
+    void testGetLoadJob() throws Exception {
+        LoadJobResponse job = new LoadJobResponse("job-1", "SUCCEEDED", Instant.now(), Instant.now(), 1, 3, 250, 1000, 250, 250, 0, 0, false, null);
+        when(loadJobService.get("job-1")).thenReturn(job);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/load/job-1")).andReturn();
+
         assertEquals(200, result.getResponse().getStatus());
-        String response = result.getResponse().getContentAsString();
-        assertEquals(true, response.startsWith("["));
+        assertEquals(true, result.getResponse().getContentAsString().contains("\"pagesFetched\":3"));
     }
 
 
@@ -66,6 +93,135 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void testSearchBatch() throws Exception {
+        when(userService.searchBatch(List.of("john", "gender:female")))
+                .thenReturn(Map.of("john", List.of(new User()), "gender:female", List.of()));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/users/search/batch")
+                        .content("{\"queries\":[\"john\",\"gender:female\"]}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(true, result.getResponse().getContentAsString().contains("\"gender:female\":[]"));
+    }
+
+    @Test
+    void testSearchBatch_RejectsShortQuery() {
+        assertThrows(Exception.class, () -> mockMvc.perform(MockMvcRequestBuilders.post("/api/users/search/batch")
+                .content("{\"queries\":[\"john\",\"jo\"]}")
+                .contentType(MediaType.APPLICATION_JSON)));
+        verify(userService, never()).searchBatch(any());
+    }
+
+    @Test
+    void testGetAllPage() throws Exception {
+        UserResponse user = new UserResponse();
+        user.setId(21L);
+        when(userService.getAll(20L, 50)).thenReturn(new CursorPage<>(List.of(user), 21L));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users")
+                        .param("after", "20")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(true, result.getResponse().getContentAsString().contains("\"nextCursor\":21"));
+        verify(userService, never()).getAll();
+    }
+
+    @Test
+    void testSearchUsersPage() throws Exception {
+        when(userService.search("john", null, 5)).thenReturn(new CursorPage<>(List.of(new User()), null));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/search")
+                        .param("query", "john")
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(true, result.getResponse().getContentAsString().contains("\"items\":["));
+    }
+
+    @Test
+    void testExportUsers() throws Exception {
+        when(userService.exportNdjson(any())).thenAnswer(inv -> {
+            inv.getArgument(0, java.io.OutputStream.class).write("{\"id\":1}\n".getBytes());
+            return 1L;
+        });
+
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/export"))
+                .andReturn();
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        assertEquals("{\"id\":1}\n", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testSearchUsersFuzzy() throws Exception {
+        when(userService.fuzzySearch("jhon")).thenReturn(List.of(new User()));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/search")
+                        .param("query", "jhon")
+                        .param("fuzzy", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        verify(userService, never()).search("jhon");
+    }
+
+    @Test
+    void testSearchUsersFuzzyPage() throws Exception {
+        when(userService.fuzzySearch("jhon", 4L, 2)).thenReturn(new CursorPage<>(List.of(new User()), null));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/search")
+                        .param("query", "jhon")
+                        .param("fuzzy", "true")
+                        .param("after", "4")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        verify(userService, never()).fuzzySearch("jhon");
+        verify(userService).fuzzySearch("jhon", 4L, 2);
+    }
+
+    @Test
+    void testSearchRanked() throws Exception {
+        User user = new User();
+        user.setId(4L);
+        when(userService.searchRanked("son", 5)).thenReturn(List.of(user));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/search/ranked")
+                        .param("query", "son")
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(true, result.getResponse().getContentAsString().startsWith("[{\"id\":4"));
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+        when(userService.suggest("em", 10)).thenReturn(List.of(new PrefixIndex.Completion("emily", 2)));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/suggest")
+                        .param("prefix", " em ")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("[{\"term\":\"emily\",\"count\":2}]", result.getResponse().getContentAsString());
+    }
+
     @Test
     void testGetById() throws Exception {
         Long id = 1L;
@@ -116,4 +272,27 @@ class UserControllerTest {
         assertEquals(200, result.getResponse().getStatus());
         assertEquals(false, result.getResponse().getContentAsString().contains("new@example.com"));
     }
+
+    @Test
+    void testCreateUsersBulk() throws Exception {
+        User first = User.builder().id(1L).email("a@x.com").build();
+        User second = User.builder().id(2L).email("b@x.com").build();
+        when(userService.createUsers(anyList())).thenReturn(List.of(first, second));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/users/bulk")
+                        .content("[{\"email\":\"a@x.com\"},{\"email\":\"b@x.com\"}]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("{\"created\":2,\"ids\":[1,2]}", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testCreateUsersBulk_RejectsEmptyList() {
+        assertThrows(Exception.class, () -> mockMvc.perform(MockMvcRequestBuilders.post("/api/users/bulk")
+                .content("[]")
+                .contentType(MediaType.APPLICATION_JSON)));
+        verify(userService, never()).createUsers(anyList());
+    }
 }
@@ -4,10 +4,13 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,6 +47,22 @@ class GlobalExceptionHandlerTest {
         assertEquals("User not found", response.getBody());
     }
 
+    @Test
+    void testHandleAuthentication_Returns401() {
+        ResponseEntity<String> response = exceptionHandler.handleAuthentication(new BadCredentialsException("Bad credentials"));
+
+        assertEquals(401, response.getStatusCode().value());
+        assertEquals("Invalid credentials", response.getBody());
+    }
+
+    @Test
+    void testHandleRejected_Returns503WithRetryAfter() {
+        ResponseEntity<String> response = exceptionHandler.handleRejected(new RejectedExecutionException("full"));
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     @Test
     void testHandleGeneric_Returns500() {
         Exception ex = new Exception("Unexpected failure");
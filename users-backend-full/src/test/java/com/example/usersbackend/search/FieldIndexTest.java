@@ -0,0 +1,61 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldIndexTest {
+
+    private FieldIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FieldIndex();
+        index.rebuild(List.of(
+                User.builder().id(1L).email("A@x.com").gender("female").age(25).build(),
+                User.builder().id(2L).email("b@x.com").gender("male").age(31).build(),
+                User.builder().id(3L).email("c@x.com").gender("Female").age(40).build(),
+                User.builder().id(4L).email("d@x.com").build()
+        ));
+    }
+
+    @Test
+    void testExact_IsCaseInsensitive() {
+        assertEquals(Set.of(1L), index.exact(UserQuery.Field.EMAIL, "a@x.com"));
+        assertEquals(Set.of(1L, 3L), index.exact(UserQuery.Field.GENDER, "female"));
+        assertEquals(2, index.countExact(UserQuery.Field.GENDER, "female"));
+    }
+
+    @Test
+    void testAgeRange_InclusiveAndOpenBounds() {
+        assertEquals(Set.of(2L, 3L), index.ageRange(31, 40));
+        assertEquals(Set.of(1L, 2L), index.ageRange(null, 31));
+        assertEquals(Set.of(3L), index.ageRange(32, null));
+        assertEquals(Set.of(), index.ageRange(50, 40));
+        assertEquals(3, index.countAgeRange(null, null));
+    }
+
+    @Test
+    void testAdd_ReplacesAndRemove() {
+        index.add(User.builder().id(2L).email("b2@x.com").gender("male").age(60).build());
+        assertTrue(index.exact(UserQuery.Field.EMAIL, "b@x.com").isEmpty());
+        assertEquals(Set.of(2L), index.ageRange(60, 60));
+
+        index.remove(2L);
+        assertEquals(3, index.size());
+        assertFalse(index.allIds().contains(2L));
+    }
+
+    @Test
+    void testMatchesAll() {
+        List<UserQuery.Clause> clauses = UserQuery.parse("gender:female age:30..").clauses();
+        assertTrue(index.matchesAll(3L, clauses));
+        assertFalse(index.matchesAll(1L, clauses));
+        assertFalse(index.matchesAll(99L, clauses));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldQuerySearchTest {
+
+    private FieldQuerySearch search;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            users.add(User.builder().id(i)
+                    .firstName(i % 2 == 0 ? "Emily" : "Michael").lastName("Smith")
+                    .email("user" + i + "@x.com").username("user" + i)
+                    .phone("+1 555-01" + String.format("%02d", i))
+                    .gender(i % 2 == 0 ? "female" : "male").age(20 + (int) i)
+                    .build());
+        }
+        FieldIndex fieldIndex = new FieldIndex();
+        TrigramIndex trigramIndex = new TrigramIndex();
+        fieldIndex.rebuild(users);
+        trigramIndex.rebuild(users);
+        search = new FieldQuerySearch(fieldIndex, trigramIndex);
+    }
+
+    @Test
+    void testSearch_ExactEmail() {
+        assertEquals(List.of(7L), search.search(UserQuery.parse("email:USER7@x.com")));
+    }
+
+    @Test
+    void testSearch_CombinesClauses() {
+        assertEquals(List.of(10L, 12L, 14L), search.search(UserQuery.parse("gender:female age:30..34")));
+        assertEquals(List.of(12L), search.search(UserQuery.parse("emily age:30..34 username:r12")));
+    }
+
+    @Test
+    void testSearch_ShortSubstringScansIndexedFields() {
+        assertEquals(List.of(1L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L),
+                search.search(UserQuery.parse("username:r1")));
+        assertEquals(20, search.search(UserQuery.parse("phone:+1")).size());
+    }
+
+    @Test
+    void testPlan_MostSelectiveClauseFirst() {
+        List<FieldQuerySearch.PlannedClause> plan = search.plan(UserQuery.parse("gender:female phone:555 email:user4@x.com"));
+
+        assertEquals(UserQuery.Field.EMAIL, plan.get(0).clause().field());
+        assertEquals(1, plan.get(0).cost());
+        assertEquals(UserQuery.Field.GENDER, plan.get(1).clause().field());
+        assertEquals(UserQuery.Field.PHONE, plan.get(2).clause().field());
+    }
+}
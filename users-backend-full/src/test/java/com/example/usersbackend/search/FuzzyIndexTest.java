@@ -0,0 +1,69 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyIndexTest {
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.rebuild(List.of(
+                user(1L, "John", "Smith"),
+                user(2L, "Joan", "Smyth"),
+                user(3L, "Emily", "Johnson"),
+                user(4L, "Mary-Ann", "Lee")
+        ));
+    }
+
+    @Test
+    void testDistance() {
+        assertEquals(0, FuzzyIndex.distance("john", "john"));
+        assertEquals(2, FuzzyIndex.distance("jhon", "john"));
+        assertEquals(1, FuzzyIndex.distance("smith", "smyth"));
+        assertEquals(3, FuzzyIndex.distance("", "lee"));
+    }
+
+    @Test
+    void testSearch_FindsMisspelledName() {
+        assertEquals(List.of(1L, 2L), index.search("Jhon"));
+        assertEquals(List.of(3L), index.search("jonhson"));
+    }
+
+    @Test
+    void testSearch_AllWordsMustMatch() {
+        assertEquals(List.of(1L), index.search("jhon smiht"));
+        assertTrue(index.search("jhon lee").isEmpty());
+    }
+
+    @Test
+    void testSearch_ShortWordsAllowOneEdit() {
+        assertEquals(List.of(4L), index.search("lea"));
+        assertTrue(index.search("lxx").isEmpty());
+    }
+
+    @Test
+    void testSearch_SplitsHyphenatedNames() {
+        assertEquals(List.of(4L), index.search("anne"));
+    }
+
+    @Test
+    void testAddAndRemove() {
+        index.add(user(5L, "Jon", "Snow"));
+        assertEquals(List.of(1L, 2L, 5L), index.search("jhon"));
+
+        index.remove(1L);
+        assertEquals(List.of(2L, 5L), index.search("jhon"));
+    }
+
+    private static User user(Long id, String first, String last) {
+        return User.builder().id(id).firstName(first).lastName(last).build();
+    }
+}
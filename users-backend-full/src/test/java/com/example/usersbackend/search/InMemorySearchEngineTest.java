@@ -0,0 +1,47 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySearchEngineTest {
+
+    private InMemorySearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = List.of(
+                User.builder().id(1L).firstName("Johnny").gender("male").age(30).build(),
+                User.builder().id(4L).firstName("John").gender("male").age(41).build(),
+                User.builder().id(6L).firstName("Johanna").gender("female").age(35).build());
+        TrigramIndex trigramIndex = new TrigramIndex();
+        FieldIndex fieldIndex = new FieldIndex();
+        trigramIndex.rebuild(users);
+        fieldIndex.rebuild(users);
+        engine = new InMemorySearchEngine(trigramIndex, new FieldQuerySearch(fieldIndex, trigramIndex));
+    }
+
+    @Test
+    void testSupports() {
+        assertTrue(engine.supports("joh"));
+        assertTrue(engine.supports("age:30"));
+        assertFalse(engine.supports("jo"));
+    }
+
+    @Test
+    void testSearch() {
+        assertEquals(List.of(1L, 4L, 6L), engine.search("joh"));
+        assertEquals(List.of(1L, 4L), engine.search("gender:male joh"));
+    }
+
+    @Test
+    void testSearchAfter_SlicesAfterCursor() {
+        assertEquals(List.of(4L), engine.searchAfter("joh", 1L, 1));
+        assertEquals(List.of(4L, 6L), engine.searchAfter("joh", 2L, 5));
+        assertEquals(List.of(1L), engine.searchAfter("joh", Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JpaSearchEngineTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Long> query;
+
+    @InjectMocks
+    private JpaSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(query);
+    }
+
+    @Test
+    void testSearch_PlainQueryUsesRepository() {
+        when(userRepository.freeTextSearchIds("jo")).thenReturn(List.of(1L, 4L));
+
+        assertTrue(engine.supports("jo"));
+        assertEquals(List.of(1L, 4L), engine.search("jo"));
+    }
+
+    @Test
+    void testSearchAfter_PlainQuerySeeksById() {
+        when(userRepository.freeTextSearchIdsAfter("john", 4L, Limit.of(2))).thenReturn(List.of(6L, 9L));
+
+        assertEquals(List.of(6L, 9L), engine.searchAfter("john", 4L, 2));
+    }
+
+    @Test
+    void testSearch_FieldQueryIsTranslatedToJpql() {
+        when(query.getResultList()).thenReturn(List.of(5L));
+
+        assertEquals(List.of(5L), engine.search("email:emily@x.com age:30.. phone:5_5"));
+
+        verify(entityManager).createQuery(
+                "SELECT u.id FROM User u WHERE u.id > :after"
+                        + " AND LOWER(u.email) = :p0"
+                        + " AND u.age >= :p1min"
+                        + " AND LOWER(u.phone) LIKE :p2 ESCAPE '\\'"
+                        + " ORDER BY u.id", Long.class);
+        verify(query).setParameter("p0", "emily@x.com");
+        verify(query).setParameter("p1min", 30);
+        verify(query).setParameter("p2", "%5\\_5%");
+        verify(query, never()).setMaxResults(anyInt());
+    }
+
+    @Test
+    void testSearchAfter_FieldQueryLimitsResults() {
+        when(query.getResultList()).thenReturn(List.of(12L));
+
+        assertEquals(List.of(12L), engine.searchAfter("gender:female age:20..30", 10L, 1));
+        verify(query).setParameter("after", 10L);
+        verify(query).setParameter("p1min", 20);
+        verify(query).setParameter("p1max", 30);
+        verify(query).setMaxResults(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearchBatch_AnswersAllQueriesWithOneQuery() {
+        TypedQuery<Object[]> batch = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenReturn(batch);
+        when(batch.getResultList()).thenReturn(List.of(new Object[]{2L, 1, 0}, new Object[]{7L, 1, 1}));
+
+        Map<String, List<Long>> results = engine.searchBatch(List.of("emily", "gender:female", "emily"));
+
+        assertEquals(Map.of("emily", List.of(2L, 7L), "gender:female", List.of(7L)), results);
+        verify(entityManager).createQuery(
+                "SELECT u.id"
+                        + ", CASE WHEN (LOWER(u.firstName) LIKE :q0p0 ESCAPE '\\'"
+                        + " OR LOWER(u.lastName) LIKE :q0p0 ESCAPE '\\'"
+                        + " OR LOWER(u.ssn) LIKE :q0p0 ESCAPE '\\') THEN 1 ELSE 0 END"
+                        + ", CASE WHEN LOWER(u.gender) = :q1p0 THEN 1 ELSE 0 END"
+                        + " FROM User u WHERE ((LOWER(u.firstName) LIKE :q0p0 ESCAPE '\\'"
+                        + " OR LOWER(u.lastName) LIKE :q0p0 ESCAPE '\\'"
+                        + " OR LOWER(u.ssn) LIKE :q0p0 ESCAPE '\\')) OR (LOWER(u.gender) = :q1p0)"
+                        + " ORDER BY u.id", Object[].class);
+        verify(batch).setParameter("q0p0", "%emily%");
+        verify(batch).setParameter("q1p0", "female");
+        verify(userRepository, never()).freeTextSearchIds(anyString());
+    }
+}
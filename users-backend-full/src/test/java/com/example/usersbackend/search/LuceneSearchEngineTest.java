@@ -0,0 +1,90 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LuceneSearchEngineTest {
+
+    private LuceneSearchEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new LuceneSearchEngine();
+        engine.rebuild(List.of(
+                User.builder().id(3L).firstName("Emily").lastName("Johnson").ssn("900-590-289")
+                        .email("emily@x.com").username("emilys").phone("+81 965-431-3024").gender("female").age(28).build(),
+                User.builder().id(1L).firstName("Michael").lastName("Williams").ssn("112-233-445")
+                        .email("michael@x.com").username("michaelw").phone("+49 258-627-6644").gender("male").age(35).build(),
+                User.builder().id(2L).firstName("Sophia").lastName("Brown").ssn("555-666-777")
+                        .email("sophia@x.com").username("sophiab").phone("+81 210-652-2785").gender("female").age(42).build()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.destroy();
+    }
+
+    @Test
+    void testSearch_SubstringAcrossNameAndSsn() {
+        assertEquals(List.of(3L), engine.search("ohnso"));
+        assertEquals(List.of(1L, 3L), engine.search("il"));
+        assertEquals(List.of(2L), engine.search("666-7"));
+        assertTrue(engine.search("hnj").isEmpty());
+    }
+
+    @Test
+    void testSearch_GramsMustBeConsecutive() {
+        // "ems" and "mso" occur in "williams" and "johnson" but "emso" occurs nowhere
+        assertTrue(engine.search("emso").isEmpty());
+    }
+
+    @Test
+    void testSearch_FieldQuery() {
+        assertEquals(List.of(2L, 3L), engine.search("gender:female"));
+        assertEquals(List.of(3L), engine.search("gender:female age:..30"));
+        assertEquals(List.of(1L), engine.search("email:michael@x.com"));
+        assertEquals(List.of(2L, 3L), engine.search("phone:\"+81 \""));
+        assertEquals(List.of(2L), engine.search("username:hia age:40.. brown"));
+    }
+
+    @Test
+    void testSearchAfter() {
+        assertEquals(List.of(2L), engine.searchAfter("gender:female", 1L, 1));
+        assertEquals(List.of(3L), engine.searchAfter("gender:female", 2L, 10));
+        assertTrue(engine.searchAfter("gender:female", Long.MAX_VALUE, 10).isEmpty());
+    }
+
+    @Test
+    void testAddAndRemoveAreVisibleImmediately() {
+        engine.add(User.builder().id(4L).firstName("Emma").lastName("Miller").build());
+        assertEquals(List.of(3L, 4L), engine.search("em"));
+
+        engine.add(User.builder().id(4L).firstName("Ava").lastName("Miller").build());
+        assertEquals(List.of(3L), engine.search("em"));
+
+        engine.remove(3L);
+        assertTrue(engine.search("emily").isEmpty());
+    }
+
+    @Test
+    void testApply_BatchIsVisibleAfterOneCall() {
+        List<User> added = new ArrayList<>();
+        for (long id = 10; id < 1010; id++) {
+            added.add(User.builder().id(id).firstName("Batch" + id).lastName("Miller").build());
+        }
+        added.add(User.builder().id(1L).firstName("Mike").lastName("Williams").build());
+
+        engine.apply(added, List.of(2L));
+
+        assertEquals(1000, engine.search("batch").size());
+        assertEquals(List.of(1L), engine.search("mike"));
+        assertTrue(engine.search("sophia").isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex();
+        index.rebuild(List.of(
+                user(1L, "Emily", "Johnson", "emilyj"),
+                user(2L, "Emma", "Miller", "emmam"),
+                user(3L, "Emily", "Brown", "emilyb"),
+                user(4L, "Ethan", "Emerson", "ethane")
+        ));
+    }
+
+    @Test
+    void testSuggest_MostFrequentFirst() {
+        List<PrefixIndex.Completion> result = index.suggest("Em", 3);
+
+        assertEquals(new PrefixIndex.Completion("emily", 2), result.get(0));
+        assertEquals(List.of("emily", "emerson", "emilyb"), terms(result));
+    }
+
+    @Test
+    void testSuggest_UnknownPrefix() {
+        assertTrue(index.suggest("zz", 5).isEmpty());
+    }
+
+    @Test
+    void testAdd_UpdatesCachedCompletions() {
+        index.add(user(5L, "Emma", "Stone", "emmas"));
+        index.add(user(6L, "Emma", "Watson", "emmaw"));
+
+        assertEquals(new PrefixIndex.Completion("emma", 3), index.suggest("e", 1).get(0));
+    }
+
+    @Test
+    void testRemove_DropsTerms() {
+        index.remove(4L);
+
+        assertTrue(index.suggest("eth", 5).isEmpty());
+        assertFalse(terms(index.suggest("em", 10)).contains("emerson"));
+        assertEquals(new PrefixIndex.Completion("emily", 2), index.suggest("emi", 1).get(0));
+    }
+
+    @Test
+    void testAdd_ReplacesTermsOfSameUser() {
+        index.add(user(2L, "Emmy", "Miller", "emmym"));
+
+        assertFalse(terms(index.suggest("emm", 10)).contains("emma"));
+        assertTrue(terms(index.suggest("emm", 10)).contains("emmy"));
+    }
+
+    @Test
+    void testSuggest_CappedAtMaxSuggestions() {
+        List<User> users = new ArrayList<>();
+        for (long i = 0; i < 50; i++) users.add(user(i, "Name" + i, "X", "u" + i));
+        index.rebuild(users);
+
+        assertEquals(PrefixIndex.MAX_SUGGESTIONS, index.suggest("name", 100).size());
+    }
+
+    private static List<String> terms(List<PrefixIndex.Completion> completions) {
+        return completions.stream().map(PrefixIndex.Completion::term).toList();
+    }
+
+    private static User user(Long id, String first, String last, String username) {
+        return User.builder().id(id).firstName(first).lastName(last).username(username).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedUserSearchTest {
+
+    private TrigramIndex index;
+    private RankedUserSearch rankedUserSearch;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        rankedUserSearch = new RankedUserSearch(index);
+        index.rebuild(List.of(
+                user(1L, "Allison", "Brown", "allisonb", "ab@x.com"),
+                user(2L, "Mason", "Lee", "masonl", "mason.lee@x.com"),
+                user(3L, "Emily", "Johnson", "emilyj", "emily@x.com"),
+                user(4L, "Sonia", "Sonders", "sonias", "s@x.com"),
+                user(5L, "Harry", "Jackson", "hj", "harry@x.com")
+        ));
+    }
+
+    @Test
+    void testTopK_OrdersByScore() {
+        List<RankedUserSearch.ScoredId> result = rankedUserSearch.topK("son", 10);
+
+        // Sonia Sonders: two name prefixes plus a username prefix outrank plain substrings
+        assertEquals(4L, result.get(0).id());
+        assertEquals(List.of(4L, 2L, 1L, 3L, 5L), result.stream().map(RankedUserSearch.ScoredId::id).toList());
+    }
+
+    @Test
+    void testTopK_ExactBeatsPrefixBeatsSubstring() {
+        index.add(user(6L, "Son", "Tran", "tran6", "t@x.com"));
+
+        List<RankedUserSearch.ScoredId> result = rankedUserSearch.topK("SON", 2);
+        assertEquals(List.of(4L, 6L), result.stream().map(RankedUserSearch.ScoredId::id).toList());
+        assertTrue(result.get(0).score() >= result.get(1).score());
+    }
+
+    @Test
+    void testTopK_KeepsOnlyK() {
+        assertEquals(2, rankedUserSearch.topK("son", 2).size());
+        assertTrue(rankedUserSearch.topK("son", 0).isEmpty());
+    }
+
+    @Test
+    void testTopK_TiesBrokenById() {
+        index.rebuild(List.of(user(9L, "Anna", "Smith", "u9", "a9@x.com"), user(7L, "Anna", "Smith", "u7", "a7@x.com")));
+
+        assertEquals(List.of(7L, 9L), rankedUserSearch.topK("anna", 5).stream().map(RankedUserSearch.ScoredId::id).toList());
+    }
+
+    @Test
+    void testScore_UsesFieldWeights() {
+        String[] fields = {"emily", "johnson", "", "emily", "emily@x.com"};
+        int expected = 3 * RankedUserSearch.EXACT + 2 * RankedUserSearch.EXACT + RankedUserSearch.PREFIX;
+        assertEquals(expected, RankedUserSearch.score("emily", fields));
+    }
+
+    private static User user(Long id, String first, String last, String username, String email) {
+        return User.builder().id(id).firstName(first).lastName(last).username(username).email(email).build();
+    }
+}
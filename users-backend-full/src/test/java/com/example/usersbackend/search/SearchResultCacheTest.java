@@ -0,0 +1,120 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(2, Duration.ofSeconds(10), now::get);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGet_HitAfterMiss() {
+        List<User> first = cache.get("emi", this::load);
+        List<User> second = cache.get("emi", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testGet_ExpiresAfterTtl() {
+        cache.get("emi", this::load);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get("emi", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsed() {
+        cache.get("aaa", this::load);
+        cache.get("bbb", this::load);
+        cache.get("aaa", this::load);
+        cache.get("ccc", this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        cache.get("aaa", this::load);
+        assertEquals(3, loads.get(), "aaa was recently used and should still be cached");
+    }
+
+    @Test
+    void testInvalidateMatching_OnlyDropsMatchingQueries() {
+        cache.get("emi", this::load);
+        cache.get("joh", this::load);
+
+        cache.invalidateMatching("emily brown"::contains);
+
+        assertEquals(1, cache.size());
+        cache.get("joh", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateAll_DiscardsInFlightLoad() {
+        cache.get("emi", () -> {
+            cache.invalidateAll();
+            return load();
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testGetAll_LoadsOnlyMissesInOneCall() {
+        cache = new SearchResultCache(10, Duration.ofSeconds(10), now::get);
+        cache.get("emi", this::load);
+        List<List<String>> calls = new ArrayList<>();
+
+        Map<String, List<User>> results = cache.getAll(List.of("emi", "joh", "smi", "joh"), missing -> {
+            calls.add(missing);
+            return Map.of("joh", List.of(new User()));
+        });
+
+        assertEquals(List.of(List.of("joh", "smi")), calls);
+        assertEquals(Set.of("emi", "joh", "smi"), results.keySet());
+        assertTrue(results.get("smi").isEmpty());
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    void testBindTo_RegistersMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.get("emi", this::load);
+        cache.get("emi", this::load);
+
+        assertEquals(1.0, registry.get("search.cache.hits").functionCounter().count());
+        assertEquals(1.0, registry.get("search.cache.misses").functionCounter().count());
+        assertEquals(1.0, registry.get("search.cache.size").gauge().value());
+    }
+
+    private List<User> load() {
+        loads.incrementAndGet();
+        return List.of(new User());
+    }
+}
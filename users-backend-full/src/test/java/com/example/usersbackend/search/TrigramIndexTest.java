@@ -0,0 +1,86 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.rebuild(List.of(
+                User.builder().id(3L).firstName("Emily").lastName("Johnson").ssn("900-590-289").build(),
+                User.builder().id(1L).firstName("Michael").lastName("Williams").ssn("123-456-789").build(),
+                User.builder().id(2L).firstName("Sophia").lastName("Brown").ssn("111-222-333").build()
+        ));
+    }
+
+    @Test
+    void testSearch_SubstringAcrossFields() {
+        assertEquals(List.of(3L), index.search("ohns"));
+        assertEquals(List.of(1L), index.search("456"));
+        assertEquals(List.of(2L), index.search("BROWN"));
+    }
+
+    @Test
+    void testSearch_ResultsSortedById() {
+        index.add(User.builder().id(0L).firstName("Emilia").lastName("Clark").build());
+        assertEquals(List.of(0L, 3L), index.search("emil"));
+    }
+
+    @Test
+    void testSearch_DoesNotMatchAcrossFieldBoundary() {
+        // "lyjo" only exists if firstName and lastName were concatenated
+        assertTrue(index.search("lyjo").isEmpty());
+    }
+
+    @Test
+    void testSearch_VerifiesCandidates() {
+        // every gram of "amsmic" occurs somewhere in "michael williams", but not the whole string
+        assertTrue(index.search("amsmic").isEmpty());
+    }
+
+    @Test
+    void testForEachMatch_RestrictsToRequestedFields() {
+        index.add(User.builder().id(4L).firstName("Ava").lastName("Taylor").username("emilyfan").email("ava@x.com").build());
+
+        // plain search does not cover username
+        assertEquals(List.of(3L), index.search("emily"));
+
+        List<Long> ids = new java.util.ArrayList<>();
+        index.forEachMatch("emily", java.util.EnumSet.of(TrigramIndex.Field.FIRST_NAME, TrigramIndex.Field.USERNAME),
+                (id, fields) -> ids.add(id));
+        ids.sort(null);
+        assertEquals(List.of(3L, 4L), ids);
+    }
+
+    @Test
+    void testAdd_ReplacesExistingEntry() {
+        index.add(User.builder().id(3L).firstName("Emma").lastName("Miller").build());
+
+        assertTrue(index.search("johnson").isEmpty());
+        assertEquals(List.of(3L), index.search("mill"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(1L);
+
+        assertTrue(index.search("michael").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSearch_ShortQuery_ThrowsException() {
+        assertFalse(TrigramIndex.supports("jo"));
+        assertThrows(IllegalArgumentException.class, () -> index.search("jo"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.usersbackend.search;
+
+import com.example.usersbackend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserQueryTest {
+
+    @Test
+    void testIsFieldQuery() {
+        assertTrue(UserQuery.isFieldQuery("email:foo@x.com"));
+        assertTrue(UserQuery.isFieldQuery("emily Gender:female"));
+        assertFalse(UserQuery.isFieldQuery("emily johnson"));
+        assertFalse(UserQuery.isFieldQuery("foo:bar"));
+    }
+
+    @Test
+    void testParse_AllClauseKinds() {
+        UserQuery query = UserQuery.parse("email:Foo@X.com username:emily phone:\"+1 555\" age:30..40 gender:female john");
+
+        assertEquals(List.of(
+                new UserQuery.Clause(UserQuery.Field.EMAIL, "foo@x.com", null, null),
+                new UserQuery.Clause(UserQuery.Field.USERNAME, "emily", null, null),
+                new UserQuery.Clause(UserQuery.Field.PHONE, "+1 555", null, null),
+                new UserQuery.Clause(UserQuery.Field.AGE, "30..40", 30, 40),
+                new UserQuery.Clause(UserQuery.Field.GENDER, "female", null, null),
+                new UserQuery.Clause(UserQuery.Field.TEXT, "john", null, null)
+        ), query.clauses());
+    }
+
+    @Test
+    void testParse_OpenAndSingleAgeRanges() {
+        assertEquals(new UserQuery.Clause(UserQuery.Field.AGE, "30..", 30, null), UserQuery.parse("age:30..").clauses().get(0));
+        assertEquals(new UserQuery.Clause(UserQuery.Field.AGE, "..40", null, 40), UserQuery.parse("age:..40").clauses().get(0));
+        assertEquals(new UserQuery.Clause(UserQuery.Field.AGE, "35", 35, 35), UserQuery.parse("age:35").clauses().get(0));
+    }
+
+    @Test
+    void testParse_InvalidAge_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> UserQuery.parse("age:old"));
+        assertThrows(IllegalArgumentException.class, () -> UserQuery.parse("age:.."));
+    }
+
+    @Test
+    void testParse_UnknownPrefixIsPlainText() {
+        assertEquals(new UserQuery.Clause(UserQuery.Field.TEXT, "foo:bar", null, null), UserQuery.parse("foo:bar").clauses().get(0));
+    }
+
+    @Test
+    void testClauseMatches() {
+        UserFields doc = new UserFields("emily", "johnson", "123", "emily@x.com", "emilys", "+1 555-0101", "female", 28);
+
+        assertTrue(UserQuery.parse("age:20..30 gender:female phone:555").clauses().stream().allMatch(c -> c.matches(doc)));
+        assertFalse(UserQuery.parse("age:..27").clauses().get(0).matches(doc));
+        assertFalse(UserQuery.parse("email:emily").clauses().get(0).matches(doc));
+    }
+
+    @Test
+    void testMatchesUser() {
+        User user = User.builder().firstName("Emily").email("e@x.com").age(30).gender("female").build();
+        assertTrue(UserQuery.parse("email:e@x.com age:25..35").matches(user));
+        assertFalse(UserQuery.parse("gender:male").matches(user));
+    }
+}
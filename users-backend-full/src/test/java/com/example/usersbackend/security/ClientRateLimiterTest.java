@@ -0,0 +1,121 @@
+package com.example.usersbackend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private ClientRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new ClientRateLimiter(properties(1000, new RateLimitProperties.Limit(5, 1),
+                route("/api/users/search/**", 2, 1)), now::get);
+    }
+
+    @Test
+    void testTryAcquire_AllowsBurstThenLimits() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:1", "/api/users"));
+        }
+        long wait = limiter.tryAcquire("ip:1", "/api/users");
+
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void testTryAcquire_RefillsOverTime() {
+        for (int i = 0; i < 5; i++) limiter.tryAcquire("ip:1", "/api/users");
+        assertTrue(limiter.tryAcquire("ip:1", "/api/users") > 0);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, limiter.tryAcquire("ip:1", "/api/users"));
+        assertTrue(limiter.tryAcquire("ip:1", "/api/users") > 0);
+    }
+
+    @Test
+    void testTryAcquire_RouteHasItsOwnLimit() {
+        assertEquals(0, limiter.tryAcquire("ip:1", "/api/users/search"));
+        assertEquals(0, limiter.tryAcquire("ip:1", "/api/users/search"));
+        assertTrue(limiter.tryAcquire("ip:1", "/api/users/search") > 0);
+
+        assertEquals(0, limiter.tryAcquire("ip:1", "/api/users"), "Other routes keep their own budget");
+    }
+
+    @Test
+    void testTryAcquire_ClientsAreIndependent() {
+        for (int i = 0; i < 5; i++) limiter.tryAcquire("user:alice", "/api/users");
+
+        assertTrue(limiter.tryAcquire("user:alice", "/api/users") > 0);
+        assertEquals(0, limiter.tryAcquire("user:bob", "/api/users"));
+    }
+
+    @Test
+    void testTryAcquire_DropsFullBucketsWhenOverMaxClients() {
+        ClientRateLimiter small = new ClientRateLimiter(properties(2, new RateLimitProperties.Limit(5, 1)), now::get);
+        small.tryAcquire("ip:1", "/api/users");
+        small.tryAcquire("ip:2", "/api/users");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        small.tryAcquire("ip:3", "/api/users");
+
+        assertEquals(1, small.size());
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentCallersNeverExceedCapacity() throws InterruptedException {
+        ClientRateLimiter shared = new ClientRateLimiter(properties(1000, new RateLimitProperties.Limit(100, 1)), now::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 100; i++) {
+                    if (shared.tryAcquire("user:alice", "/api/users") == 0) allowed.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void testConstructor_InvalidLimit_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter(properties(1000, new RateLimitProperties.Limit(0, 1)), now::get));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter(properties(1000, new RateLimitProperties.Limit(5, 0)), now::get));
+    }
+
+    static RateLimitProperties properties(int maxClients, RateLimitProperties.Limit defaultLimit, RateLimitProperties.Route... routes) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxClients(maxClients);
+        properties.setDefaultLimit(defaultLimit);
+        properties.setRoutes(List.of(routes));
+        return properties;
+    }
+
+    static RateLimitProperties.Route route(String path, int capacity, double perSecond) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(path);
+        route.setCapacity(capacity);
+        route.setPerSecond(perSecond);
+        return route;
+    }
+}
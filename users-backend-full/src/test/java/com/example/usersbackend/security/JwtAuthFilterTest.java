@@ -1,5 +1,7 @@
 package com.example.usersbackend.security;
 
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,12 +11,11 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,18 +25,15 @@ class JwtAuthFilterTest {
     @Mock
     private JwtUtil jwtUtil;
 
-    @Mock
-    private UserDetailsService userDetailsService;
-
     @Mock
     private FilterChain filterChain;
 
-    @InjectMocks
     private JwtAuthFilter jwtAuthFilter;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        jwtAuthFilter = new JwtAuthFilter(jwtUtil, new VerifiedTokenCache(100));
         SecurityContextHolder.clearContext();
     }
 
@@ -71,18 +69,18 @@ class JwtAuthFilterTest {
         request.addHeader("Authorization", "Bearer " + token);
         MockHttpServletResponse response = new MockHttpServletResponse();
 
-        UserDetails userDetails = new User(username, "password", Collections.emptyList());
-
-        when(jwtUtil.extractUsername(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtUtil.isTokenValid(token, userDetails)).thenReturn(true);
+        when(jwtUtil.parse(token)).thenReturn(new JwtClaims(username, List.of("ROLE_ADMIN"), Instant.now().plusSeconds(60)));
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain, times(1)).doFilter(request, response);
+        verify(jwtUtil, times(1)).parse(token);
+        verifyNoMoreInteractions(jwtUtil);
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         assertTrue(SecurityContextHolder.getContext().getAuthentication() instanceof UsernamePasswordAuthenticationToken);
         assertEquals(username, ((UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUsername());
+        assertTrue(SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
     }
 
     @Test
@@ -93,7 +91,7 @@ class JwtAuthFilterTest {
         request.addHeader("Authorization", "Bearer " + token);
         MockHttpServletResponse response = new MockHttpServletResponse();
 
-        when(jwtUtil.extractUsername(token)).thenReturn(null);
+        when(jwtUtil.parse(token)).thenReturn(new JwtClaims(null, List.of(), Instant.now().plusSeconds(60)));
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
@@ -104,22 +102,46 @@ class JwtAuthFilterTest {
     @Test
     void testDoFilter_InvalidToken() throws ServletException, IOException {
         String token = "fake.token";
-        String username = "john@example.com";
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader("Authorization", "Bearer " + token);
         MockHttpServletResponse response = new MockHttpServletResponse();
 
-        UserDetails userDetails = new User(username, "password", Collections.emptyList());
+        when(jwtUtil.parse(token)).thenThrow(new SignatureException("JWT signature does not match"));
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, times(1)).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDoFilter_MalformedToken() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer garbage");
+        MockHttpServletResponse response = new MockHttpServletResponse();
 
-        when(jwtUtil.extractUsername(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtUtil.isTokenValid(token, userDetails)).thenReturn(false);
+        when(jwtUtil.parse("garbage")).thenThrow(new MalformedJwtException("bad token"));
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain, times(1)).doFilter(request, response);
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
-}
 
+    @Test
+    void testDoFilter_ReusedTokenIsVerifiedOnce() throws ServletException, IOException {
+        String token = "reused.jwt.token";
+        when(jwtUtil.parse(token)).thenReturn(new JwtClaims("admin", List.of("ROLE_ADMIN"), Instant.now().plusSeconds(60)));
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("Authorization", "Bearer " + token);
+            jwtAuthFilter.doFilterInternal(request, new MockHttpServletResponse(), filterChain);
+            assertEquals("admin", SecurityContextHolder.getContext().getAuthentication().getName());
+        }
+
+        verify(jwtUtil, times(1)).parse(token);
+    }
+}
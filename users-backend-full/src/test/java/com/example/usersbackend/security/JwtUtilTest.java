@@ -3,10 +3,15 @@ package com.example.usersbackend.security;
 import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -86,5 +91,57 @@ class JwtUtilTest {
 
         assertThrows(SignatureException.class, () -> jwtUtil.extractUsername(token));
     }
-}
 
+    @Test
+    void testParse_ReturnsSubjectRolesAndExpiry() {
+        UserDetails admin = new User("admin", "password", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String token = jwtUtil.generateToken(admin);
+
+        JwtClaims claims = jwtUtil.parse(token);
+
+        assertEquals("admin", claims.username());
+        assertEquals(List.of("ROLE_ADMIN"), claims.roles());
+        assertTrue(claims.expiresAt().isAfter(java.time.Instant.now()));
+        assertEquals("ROLE_ADMIN", claims.toUserDetails().getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void testParse_TokenWithoutRoles() {
+        JwtClaims claims = jwtUtil.parse(jwtUtil.generateToken("john@example.com"));
+
+        assertEquals("john@example.com", claims.username());
+        assertTrue(claims.roles().isEmpty());
+    }
+
+    @Test
+    void testParse_ExpiredToken_Throws() throws InterruptedException {
+        JwtUtil shortLivedJwt = new JwtUtil(secret, 1000);
+        String token = shortLivedJwt.generateToken("tim@example.com");
+
+        TimeUnit.MILLISECONDS.sleep(1500);
+
+        assertThrows(ExpiredJwtException.class, () -> shortLivedJwt.parse(token));
+    }
+
+    @Test
+    void testParseRefresh_ReturnsSubject() {
+        String refresh = jwtUtil.generateRefreshToken("admin");
+
+        assertEquals("admin", jwtUtil.parseRefresh(refresh).username());
+    }
+
+    @Test
+    void testParse_RefreshTokenRejectedAsAccessToken() {
+        String refresh = jwtUtil.generateRefreshToken("admin");
+
+        assertThrows(UnsupportedJwtException.class, () -> jwtUtil.parse(refresh));
+        assertFalse(jwtUtil.isTokenValid(refresh, new User("admin", "password", Collections.emptyList())));
+    }
+
+    @Test
+    void testParseRefresh_AccessTokenRejected() {
+        String access = jwtUtil.generateToken("admin");
+
+        assertThrows(UnsupportedJwtException.class, () -> jwtUtil.parseRefresh(access));
+    }
+}
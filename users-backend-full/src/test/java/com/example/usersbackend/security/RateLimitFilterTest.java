@@ -0,0 +1,92 @@
+package com.example.usersbackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final AtomicLong now = new AtomicLong();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
+        filter = new RateLimitFilter(new ClientRateLimiter(
+                ClientRateLimiterTest.properties(1000, new RateLimitProperties.Limit(2, 0.5)), now::get));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilter_OverLimit_Returns429WithRetryAfter() throws ServletException, IOException {
+        assertEquals(200, call("10.0.0.1").getStatus());
+        assertEquals(200, call("10.0.0.1").getStatus());
+
+        MockHttpServletResponse limited = call("10.0.0.1");
+
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("Retry-After"));
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void testDoFilter_KeysByAddressWhenAnonymous() throws ServletException, IOException {
+        call("10.0.0.1");
+        call("10.0.0.1");
+
+        assertEquals(200, call("10.0.0.2").getStatus());
+    }
+
+    @Test
+    void testDoFilter_KeysBySubjectWhenAuthenticated() throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+        call("10.0.0.1");
+        call("10.0.0.2");
+
+        assertEquals(429, call("10.0.0.3").getStatus(), "The user's budget is shared across addresses");
+    }
+
+    @Test
+    void testDoFilter_Disabled_PassesThrough() throws ServletException, IOException {
+        RateLimitProperties properties = ClientRateLimiterTest.properties(1000, new RateLimitProperties.Limit(1, 0.5));
+        properties.setEnabled(false);
+        filter = new RateLimitFilter(new ClientRateLimiter(properties, now::get));
+
+        call("10.0.0.1");
+        call("10.0.0.1");
+
+        verify(filterChain, times(2)).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse call(String address) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
+}
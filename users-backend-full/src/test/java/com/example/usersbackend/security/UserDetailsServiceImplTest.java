@@ -2,10 +2,13 @@ package com.example.usersbackend.security;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserDetailsServiceImplTest {
@@ -13,9 +16,11 @@ class UserDetailsServiceImplTest {
     private UserDetailsServiceImpl userDetailsService;
     private BCryptPasswordEncoder encoder;
 
+    private static final String ADMIN_HASH = "$2a$10$DrY//flO2fqz2WpmjnohR.HU2oFRKyVwxZB9uxHTR8PE12zXX4TH6";
+
     @BeforeEach
     void setUp() {
-        userDetailsService = new UserDetailsServiceImpl();
+        userDetailsService = new UserDetailsServiceImpl(properties(account("admin", ADMIN_HASH, "ADMIN")));
         encoder = new BCryptPasswordEncoder();
     }
 
@@ -53,5 +58,47 @@ class UserDetailsServiceImplTest {
         assertTrue(userDetails.getPassword().startsWith("$2"),
                 "Password should be a BCrypt hash");
     }
-}
 
+    @Test
+    void testLoadUserByUsername_ReturnsStoredHash() {
+        String first = userDetailsService.loadUserByUsername("admin").getPassword();
+        String second = userDetailsService.loadUserByUsername("admin").getPassword();
+
+        assertEquals(ADMIN_HASH, first, "Lookups should return the configured hash instead of hashing again");
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testLoadUserByUsername_ErasedCopyDoesNotAffectStore() {
+        ((User) userDetailsService.loadUserByUsername("admin")).eraseCredentials();
+
+        assertEquals(ADMIN_HASH, userDetailsService.loadUserByUsername("admin").getPassword());
+    }
+
+    @Test
+    void testConstructor_PlainTextPassword_ThrowsException() {
+        Exception ex = assertThrows(IllegalArgumentException.class,
+                () -> new UserDetailsServiceImpl(properties(account("admin", "admin123", "ADMIN"))));
+        assertTrue(ex.getMessage().contains("BCrypt"));
+    }
+
+    @Test
+    void testConstructor_DuplicateUsername_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new UserDetailsServiceImpl(
+                properties(account("admin", ADMIN_HASH, "ADMIN"), account("ADMIN", ADMIN_HASH, "USER"))));
+    }
+
+    private static CredentialProperties properties(CredentialProperties.Account... accounts) {
+        CredentialProperties properties = new CredentialProperties();
+        properties.setUsers(List.of(accounts));
+        return properties;
+    }
+
+    private static CredentialProperties.Account account(String username, String hash, String... roles) {
+        CredentialProperties.Account account = new CredentialProperties.Account();
+        account.setUsername(username);
+        account.setPasswordHash(hash);
+        account.setRoles(List.of(roles));
+        return account;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.usersbackend.security;
+
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private Instant now = START;
+    private VerifiedTokenCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(inv -> now);
+        cache = new VerifiedTokenCache(2, clock);
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    void testGet_HitAfterMiss() {
+        UserDetails first = cache.get("token-a", this::verify);
+        UserDetails second = cache.get("token-a", this::verify);
+
+        assertSame(first, second);
+        assertEquals("token-a", first.getUsername());
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testGet_ExpiresWithToken() {
+        cache.get("token-a", this::verify);
+        now = START.plusSeconds(61);
+        cache.get("token-a", this::verify);
+
+        assertEquals(2, verifications.get());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testGet_EvictsOldestWhenFull() {
+        cache.get("token-a", this::verify);
+        cache.get("token-b", this::verify);
+        cache.get("token-c", this::verify);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        cache.get("token-a", this::verify);
+        assertEquals(4, verifications.get());
+    }
+
+    @Test
+    void testGet_InvalidTokenIsNotCached() {
+        assertThrows(SignatureException.class, () -> cache.get("forged", t -> { throw new SignatureException("bad"); }));
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testBindTo_PublishesMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.get("token-a", this::verify);
+        cache.get("token-a", this::verify);
+
+        assertEquals(1.0, registry.get("jwt.cache.hits").functionCounter().count());
+        assertEquals(1.0, registry.get("jwt.cache.misses").functionCounter().count());
+        assertEquals(1.0, registry.get("jwt.cache.size").gauge().value());
+        assertEquals(1.0, registry.get("jwt.verify").functionTimer().count());
+    }
+
+    private JwtClaims verify(String token) {
+        verifications.incrementAndGet();
+        return new JwtClaims(token, List.of("ROLE_ADMIN"), START.plusSeconds(60));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.TokenResponse;
+import com.example.usersbackend.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuthServiceImplTest {
+
+    private static final String SECRET = "this_is_a_very_secure_secret_key_for_testing_123456";
+
+    @Mock
+    private AuthenticationManager authManager;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+    private final UserDetails admin = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    private final AtomicInteger loginTasks = new AtomicInteger();
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Executor executor = task -> {
+            loginTasks.incrementAndGet();
+            task.run();
+        };
+        authService = new AuthServiceImpl(authManager, userDetailsService, jwtUtil, executor);
+    }
+
+    @Test
+    void testLogin_RunsOnLoginExecutorAndIssuesTokens() {
+        when(authManager.authenticate(any())).thenReturn(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+
+        TokenResponse tokens = authService.login("admin", "admin123").join();
+
+        assertEquals(1, loginTasks.get());
+        assertEquals("admin", jwtUtil.parse(tokens.getToken()).username());
+        assertEquals(List.of("ROLE_ADMIN"), jwtUtil.parse(tokens.getToken()).roles());
+        assertEquals("admin", jwtUtil.parseRefresh(tokens.getRefreshToken()).username());
+        assertEquals(60, tokens.getExpiresIn());
+    }
+
+    @Test
+    void testLogin_BadCredentials_CompletesExceptionally() {
+        when(authManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> authService.login("admin", "bad").join());
+
+        assertTrue(ex.getCause() instanceof BadCredentialsException);
+    }
+
+    @Test
+    void testLogin_ExecutorFull_Rejected() {
+        AuthServiceImpl busy = new AuthServiceImpl(authManager, userDetailsService, jwtUtil,
+                task -> { throw new RejectedExecutionException("full"); });
+
+        assertThrows(RejectedExecutionException.class, () -> busy.login("admin", "admin123"));
+        verify(authManager, never()).authenticate(any());
+    }
+
+    @Test
+    void testRefresh_IssuesNewTokensWithoutPasswordCheck() {
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(admin);
+
+        TokenResponse tokens = authService.refresh(jwtUtil.generateRefreshToken("admin"));
+
+        assertEquals("admin", jwtUtil.parse(tokens.getToken()).username());
+        assertEquals(List.of("ROLE_ADMIN"), jwtUtil.parse(tokens.getToken()).roles());
+        verify(authManager, never()).authenticate(any());
+        assertEquals(0, loginTasks.get());
+    }
+
+    @Test
+    void testRefresh_AccessTokenRejected() {
+        String accessToken = jwtUtil.generateToken(admin);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(accessToken));
+    }
+
+    @Test
+    void testRefresh_RemovedAccountRejected() {
+        when(userDetailsService.loadUserByUsername("gone")).thenThrow(new UsernameNotFoundException("User not found: gone"));
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(jwtUtil.generateRefreshToken("gone")));
+    }
+
+    @Test
+    void testRefresh_MissingToken_Rejected() {
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(null));
+        assertThrows(BadCredentialsException.class, () -> authService.refresh("not.a.token"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.LoadJobResponse;
+import com.example.usersbackend.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoadJobServiceImplTest {
+
+    @Mock
+    private UserService userService;
+
+    private ExecutorService executor;
+    private LoadJobServiceImpl loadJobService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newSingleThreadExecutor();
+        loadJobService = new LoadJobServiceImpl(userService, executor, Clock.systemUTC());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testStart_ConcurrentRequestsJoinRunningJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.loadFromRemote(any())).thenAnswer(inv -> {
+            LoadProgress progress = inv.getArgument(0);
+            progress.attemptStarted();
+            progress.pageFetched();
+            progress.rowsWritten(2);
+            release.await();
+            return new LoadResult(2, 2, 0, 0, 0);
+        });
+
+        LoadJobResponse first = loadJobService.start();
+        LoadJobResponse second = loadJobService.start();
+        assertEquals(first.getJobId(), second.getJobId());
+        assertEquals("RUNNING", second.getState());
+
+        release.countDown();
+        LoadJobResponse done = awaitFinished(first.getJobId());
+        assertEquals("SUCCEEDED", done.getState());
+        assertEquals(2, done.getUsers());
+        assertEquals(2, done.getInserted());
+        assertEquals(0, done.getDeleted());
+        assertEquals(1, done.getPagesFetched());
+        assertEquals(2, done.getRowsWritten());
+        assertNotNull(done.getFinishedAt());
+        verify(userService, times(1)).loadFromRemote(any());
+
+        assertNotEquals(first.getJobId(), loadJobService.start().getJobId());
+    }
+
+    @Test
+    void testStart_ReportsFailure() throws Exception {
+        when(userService.loadFromRemote(any())).thenThrow(new RuntimeException("Remote API call failed"));
+
+        LoadJobResponse done = awaitFinished(loadJobService.start().getJobId());
+
+        assertEquals("FAILED", done.getState());
+        assertEquals("Remote API call failed", done.getError());
+        assertNull(done.getUsers());
+    }
+
+    @Test
+    void testStart_FallbackCountsAsFailure() throws Exception {
+        when(userService.loadFromRemote(any())).thenAnswer(inv -> {
+            LoadProgress progress = inv.getArgument(0);
+            progress.fellBack(new IllegalStateException("CircuitBreaker 'dummyApiCB' is OPEN"));
+            return new LoadResult(1, 0, 0, 0, 0);
+        });
+
+        LoadJobResponse done = awaitFinished(loadJobService.start().getJobId());
+
+        assertEquals("FAILED", done.getState());
+        assertEquals("CircuitBreaker 'dummyApiCB' is OPEN", done.getError());
+    }
+
+    @Test
+    void testCompletion_CompletesWhenJobFinishes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.loadFromRemote(any())).thenAnswer(inv -> {
+            release.await();
+            return new LoadResult(2, 2, 0, 0, 0);
+        });
+
+        String jobId = loadJobService.start().getJobId();
+        CompletableFuture<LoadJobResponse> completion = loadJobService.completion(jobId);
+        assertFalse(completion.isDone());
+
+        release.countDown();
+        LoadJobResponse done = completion.get(5, TimeUnit.SECONDS);
+        assertEquals("SUCCEEDED", done.getState());
+        assertEquals(2, done.getUsers());
+        assertTrue(loadJobService.completion(jobId).isDone());
+    }
+
+    @Test
+    void testCompletion_UnknownJob() {
+        assertThrows(ResourceNotFoundException.class, () -> loadJobService.completion("missing"));
+    }
+
+    @Test
+    void testGet_UnknownJob() {
+        assertThrows(ResourceNotFoundException.class, () -> loadJobService.get("missing"));
+    }
+
+    private LoadJobResponse awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        LoadJobResponse job = loadJobService.get(jobId);
+        while ("RUNNING".equals(job.getState()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = loadJobService.get(jobId);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.DummyUserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteUserReaderTest {
+
+    private final RemoteUserReader reader = new RemoteUserReader(new ObjectMapper());
+
+    @Test
+    void testRead_EmitsChunksAndTotal() throws Exception {
+        String json = "{\"users\":[{\"id\":1,\"firstName\":\"Emily\",\"hair\":{\"color\":\"Brown\"}},"
+                + "{\"id\":2,\"firstName\":\"Michael\"},null,{\"id\":3,\"firstName\":\"Sophia\"}],"
+                + "\"total\":208,\"skip\":0,\"limit\":3}";
+        List<List<DummyUserResponse.DummyUser>> chunks = new ArrayList<>();
+
+        RemoteUserReader.Summary summary = reader.read(body(json), 2, chunks::add);
+
+        assertEquals(new RemoteUserReader.Summary(true, 3, 208), summary);
+        assertEquals(2, chunks.size());
+        assertEquals(List.of("Emily", "Michael"), chunks.get(0).stream().map(DummyUserResponse.DummyUser::getFirstName).toList());
+        assertEquals(3L, chunks.get(1).get(0).getId());
+    }
+
+    @Test
+    void testRead_TotalBeforeUsers() throws Exception {
+        RemoteUserReader.Summary summary = reader.read(body("{\"total\":1,\"users\":[{\"id\":1}]}"), 10, c -> { });
+        assertEquals(new RemoteUserReader.Summary(true, 1, 1), summary);
+    }
+
+    @Test
+    void testRead_MissingUsers() throws Exception {
+        assertFalse(reader.read(body("{\"message\":\"not found\"}"), 10, c -> fail()).usersPresent());
+        assertFalse(reader.read(body(""), 10, c -> fail()).usersPresent());
+    }
+
+    @Test
+    void testRead_NotAnObject() {
+        assertThrows(IOException.class, () -> reader.read(body("[1,2]"), 10, c -> { }));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
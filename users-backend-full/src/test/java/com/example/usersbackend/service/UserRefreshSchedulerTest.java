@@ -0,0 +1,116 @@
+package com.example.usersbackend.service;
+
+import com.example.usersbackend.dto.LoadJobResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserRefreshSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private LoadJobService loadJobService;
+
+    @Mock
+    private ScheduledExecutorService executor;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private double random;
+    private UserRefreshScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        random = 0.5;
+        scheduler = new UserRefreshScheduler(loadJobService, circuitBreakerRegistry, executor,
+                Clock.fixed(NOW, ZoneOffset.UTC), () -> random);
+        ReflectionTestUtils.setField(scheduler, "interval", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(scheduler, "maxBackoff", Duration.ofMinutes(35));
+        ReflectionTestUtils.setField(scheduler, "maxStaleness", Duration.ofHours(1));
+        when(loadJobService.lastSucceededAt()).thenReturn(NOW);
+    }
+
+    @Test
+    void testNextDelay_IntervalWithJitter() {
+        assertEquals(Duration.ofMinutes(10), scheduler.nextDelay());
+        random = 0.0;
+        assertEquals(Duration.ofMinutes(9), scheduler.nextDelay());
+        random = 1.0;
+        assertEquals(Duration.ofMinutes(11), scheduler.nextDelay());
+    }
+
+    @Test
+    void testNextDelay_BacksOffWhileCircuitIsOpen() {
+        ReflectionTestUtils.setField(scheduler, "maxStaleness", Duration.ofDays(1));
+        circuitBreakerRegistry.circuitBreaker(UserRefreshScheduler.CIRCUIT_BREAKER).transitionToOpenState();
+
+        assertEquals(Duration.ofMinutes(20), scheduler.nextDelay());
+        assertEquals(Duration.ofMinutes(35), scheduler.nextDelay());
+        assertEquals(Duration.ofMinutes(35), scheduler.nextDelay());
+
+        circuitBreakerRegistry.circuitBreaker(UserRefreshScheduler.CIRCUIT_BREAKER).transitionToHalfOpenState();
+        assertEquals(Duration.ofMinutes(10), scheduler.nextDelay());
+    }
+
+    @Test
+    void testNextDelay_StalenessBudgetCapsBackoff() {
+        when(loadJobService.lastSucceededAt()).thenReturn(NOW.minus(Duration.ofMinutes(45)));
+        circuitBreakerRegistry.circuitBreaker(UserRefreshScheduler.CIRCUIT_BREAKER).transitionToOpenState();
+
+        assertEquals(Duration.ofMinutes(15), scheduler.nextDelay());
+    }
+
+    @Test
+    void testNextDelay_AlreadyStaleFollowsInterval() {
+        when(loadJobService.lastSucceededAt()).thenReturn(NOW.minus(Duration.ofHours(3)));
+        circuitBreakerRegistry.circuitBreaker(UserRefreshScheduler.CIRCUIT_BREAKER).transitionToOpenState();
+
+        assertEquals(Duration.ofMinutes(10), scheduler.nextDelay());
+    }
+
+    @Test
+    void testRefresh_SchedulesNextOnceLoadJobFinishes() {
+        LoadJobResponse started = new LoadJobResponse();
+        started.setJobId("job-1");
+        CompletableFuture<LoadJobResponse> completion = new CompletableFuture<>();
+        when(loadJobService.start()).thenReturn(started);
+        when(loadJobService.completion("job-1")).thenReturn(completion);
+
+        scheduler.refresh();
+
+        verify(loadJobService, times(1)).start();
+        verify(executor, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        circuitBreakerRegistry.circuitBreaker(UserRefreshScheduler.CIRCUIT_BREAKER).transitionToOpenState();
+        completion.complete(started);
+
+        verify(executor, times(1)).schedule(any(Runnable.class), eq(Duration.ofMinutes(20).toMillis()), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRefresh_FailureStillSchedulesNext() {
+        when(loadJobService.start()).thenThrow(new IllegalStateException("executor shut down"));
+
+        scheduler.refresh();
+
+        verify(executor, times(1)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+}
@@ -1,18 +1,54 @@
 package com.example.usersbackend.service;
 
-import com.example.usersbackend.dto.DummyUserResponse;
+import com.example.usersbackend.dto.CursorPage;
 import com.example.usersbackend.dto.UserResponse;
 import com.example.usersbackend.exception.ResourceNotFoundException;
+import com.example.usersbackend.model.StagedUser;
 import com.example.usersbackend.model.User;
+import com.example.usersbackend.repository.StagedUserRepository;
+import com.example.usersbackend.repository.UserFingerprint;
 import com.example.usersbackend.repository.UserRepository;
+import com.example.usersbackend.search.FieldIndex;
+import com.example.usersbackend.search.FieldQuerySearch;
+import com.example.usersbackend.search.FuzzyIndex;
+import com.example.usersbackend.search.InMemorySearchEngine;
+import com.example.usersbackend.search.PrefixIndex;
+import com.example.usersbackend.search.RankedUserSearch;
+import com.example.usersbackend.search.SearchResultCache;
+import com.example.usersbackend.search.TrigramIndex;
+import com.example.usersbackend.search.UserQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,12 +61,47 @@ class UserServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    @Spy
+    private TrigramIndex trigramIndex = new TrigramIndex();
+
+    @Mock
+    private RankedUserSearch rankedUserSearch;
+
+    @Spy
+    private PrefixIndex prefixIndex = new PrefixIndex();
+
+    @Spy
+    private FuzzyIndex fuzzyIndex = new FuzzyIndex();
+
+    @Spy
+    private FieldIndex fieldIndex = new FieldIndex();
+
+    @Mock
+    private FieldQuerySearch fieldQuerySearch;
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(100, Duration.ofMinutes(1));
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private StagedUserRepository stagedUserRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserServiceImpl(userRepository, restTemplate,
+                new InMemorySearchEngine(trigramIndex, fieldQuerySearch),
+                List.of(trigramIndex, fieldIndex, prefixIndex, fuzzyIndex),
+                rankedUserSearch, prefixIndex, fuzzyIndex, searchResultCache, entityManager, objectMapper,
+                new RemoteUserReader(objectMapper), stagedUserRepository);
+        ReflectionTestUtils.setField(userService, "dummyBaseUrl", "https://dummyjson.com/users");
     }
 
     @Test
@@ -43,6 +114,27 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetAllPage_HasNextCursor() {
+        List<User> rows = Arrays.asList(
+                User.builder().id(11L).build(), User.builder().id(12L).build(), User.builder().id(13L).build());
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(rows);
+
+        CursorPage<UserResponse> page = userService.getAll(10L, 2);
+        assertEquals(List.of(11L, 12L), page.getItems().stream().map(UserResponse::getId).toList());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    void testGetAllPage_LastPage() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(3)))
+                .thenReturn(List.of(User.builder().id(1L).build()));
+
+        CursorPage<UserResponse> page = userService.getAll(null, 2);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     void testFindById_Success() {
         User user = new User();
@@ -77,13 +169,179 @@ class UserServiceImplTest {
 
     @Test
     void testSearchUsers() {
-        String query = "john";
-        List<User> users = Arrays.asList(new User(), new User());
-        when(userRepository.freeTextSearch("john")).thenReturn(users);
+        User john = User.builder().id(2L).firstName("John").lastName("Doe").build();
+        User johnny = User.builder().id(1L).firstName("Johnny").lastName("Smith").build();
+        User jane = User.builder().id(3L).firstName("Jane").lastName("Roe").build();
+        trigramIndex.rebuild(List.of(john, johnny, jane));
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(Arrays.asList(john, johnny));
 
-        List<User> result = userService.search(query);
-        assertEquals(2, result.size());
-        verify(userRepository, times(1)).freeTextSearch("john");
+        List<User> result = userService.search("JOHN");
+        assertEquals(List.of(1L, 2L), result.stream().map(User::getId).toList());
+        verify(userRepository, never()).freeTextSearch(anyString());
+    }
+
+    @Test
+    void testSearchPage_UsesIndexIdsAfterCursor() {
+        List<User> users = List.of(
+                User.builder().id(1L).firstName("Johnny").build(),
+                User.builder().id(4L).firstName("John").build(),
+                User.builder().id(6L).firstName("Johanna").build(),
+                User.builder().id(9L).firstName("Johnson").build());
+        trigramIndex.rebuild(users);
+        when(userRepository.findAllById(List.of(6L, 9L))).thenReturn(Arrays.asList(users.get(3), users.get(2)));
+
+        CursorPage<User> page = userService.search("joh", 4L, 1);
+        assertEquals(List.of(6L), page.getItems().stream().map(User::getId).toList());
+        assertEquals(6L, page.getNextCursor());
+    }
+
+    @Test
+    void testSearchPage_ShortQueryFallsBackToRepository() {
+        when(userRepository.freeTextSearchAfter("jo", 5L, Limit.of(11))).thenReturn(List.of(User.builder().id(6L).build()));
+
+        CursorPage<User> page = userService.search("jo", 5L, 10);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testSearchRanked_KeepsRankOrder() {
+        when(rankedUserSearch.topK("son", 10)).thenReturn(List.of(
+                new RankedUserSearch.ScoredId(4L, 20), new RankedUserSearch.ScoredId(2L, 6)));
+        when(userRepository.findAllById(List.of(4L, 2L))).thenReturn(Arrays.asList(
+                User.builder().id(2L).build(), User.builder().id(4L).build()));
+
+        List<User> result = userService.searchRanked("son", 10);
+        assertEquals(List.of(4L, 2L), result.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void testFuzzySearch() {
+        User john = User.builder().id(1L).firstName("John").lastName("Doe").build();
+        fuzzyIndex.rebuild(List.of(john, User.builder().id(2L).firstName("Emily").lastName("Stone").build()));
+        when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(john));
+
+        assertEquals(List.of(john), userService.fuzzySearch("Jhon"));
+    }
+
+    @Test
+    void testFuzzySearch_Page() {
+        User john = User.builder().id(1L).firstName("John").lastName("Doe").build();
+        User jon = User.builder().id(3L).firstName("Jon").lastName("Stone").build();
+        User joan = User.builder().id(5L).firstName("Joan").lastName("Hill").build();
+        fuzzyIndex.rebuild(List.of(john, jon, joan));
+        when(userRepository.findAllById(List.of(3L, 5L))).thenReturn(List.of(joan, jon));
+
+        CursorPage<User> page = userService.fuzzySearch("Jhon", 1L, 1);
+        assertEquals(List.of(jon), page.getItems());
+        assertEquals(3L, page.getNextCursor());
+    }
+
+    @Test
+    void testSearchUsers_CachedUntilMatchingUserCreated() {
+        User john = User.builder().id(1L).firstName("John").build();
+        trigramIndex.rebuild(List.of(john));
+        when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(john));
+
+        userService.search("john");
+        userService.search("John");
+        verify(userRepository, times(1)).findAllById(any());
+
+        User johnny = User.builder().id(2L).firstName("Johnny").email("johnny@example.com").build();
+        when(userRepository.save(johnny)).thenReturn(johnny);
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(john, johnny));
+        userService.createUser(johnny);
+
+        assertEquals(2, userService.search("john").size());
+        verify(searchResultCache, times(1)).invalidateMatching(any());
+    }
+
+    @Test
+    void testSearchUsers_FieldQueryUsesFieldIndexes() {
+        User emily = User.builder().id(5L).email("emily@x.com").build();
+        when(fieldQuerySearch.search(UserQuery.parse("email:emily@x.com age:30..40"))).thenReturn(List.of(5L));
+        when(userRepository.findAllById(List.of(5L))).thenReturn(List.of(emily));
+
+        assertEquals(List.of(emily), userService.search("EMAIL:emily@x.com age:30..40"));
+        verify(userRepository, never()).freeTextSearch(anyString());
+    }
+
+    @Test
+    void testCreateUser_InvalidatesMatchingFieldQuery() {
+        User emily = User.builder().id(5L).firstName("Emily").email("emily@x.com").build();
+        when(fieldQuerySearch.search(any())).thenReturn(List.of());
+        userService.search("email:emily@x.com");
+
+        when(userRepository.save(emily)).thenReturn(emily);
+        userService.createUser(emily);
+
+        assertEquals(0, searchResultCache.size());
+        verify(fieldIndex, times(1)).add(emily);
+    }
+
+    @Test
+    void testSearchBatch_LoadsIndexedMatchesOnce() {
+        User john = User.builder().id(1L).firstName("John").build();
+        User jane = User.builder().id(2L).firstName("Jane").build();
+        User joe = User.builder().id(3L).firstName("Joe").build();
+        trigramIndex.rebuild(List.of(john, jane, joe));
+        when(userRepository.findAllById(any())).thenReturn(List.of(john, jane));
+        when(userRepository.freeTextSearch("oe")).thenReturn(List.of(joe));
+
+        Map<String, List<User>> results = userService.searchBatch(List.of("JOHN", "jan", "oe", "JOHN"));
+
+        assertEquals(List.of("JOHN", "jan", "oe"), List.copyOf(results.keySet()));
+        assertEquals(List.of(john), results.get("JOHN"));
+        assertEquals(List.of(jane), results.get("jan"));
+        assertEquals(List.of(joe), results.get("oe"));
+        verify(userRepository, times(1)).findAllById(any());
+        verify(userRepository, never()).streamAll();
+    }
+
+    @Test
+    void testSearchBatch_LoadsManyMatchesInChunks() {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            users.add(User.builder().id(id).firstName("John").build());
+        }
+        trigramIndex.rebuild(users);
+        when(userRepository.findAllById(any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            assertTrue(ids.size() <= 1000);
+            return ids.stream().map(id -> users.get((int) (id - 1))).toList();
+        });
+
+        Map<String, List<User>> results = userService.searchBatch(List.of("john"));
+
+        assertEquals(2500, results.get("john").size());
+        verify(userRepository, times(3)).findAllById(any());
+    }
+
+    @Test
+    void testSearchBatch_UsesCachedResults() {
+        User john = User.builder().id(1L).firstName("John").build();
+        trigramIndex.rebuild(List.of(john));
+        when(userRepository.findAllById(any())).thenReturn(List.of(john));
+        userService.search("john");
+
+        assertEquals(List.of(john), userService.searchBatch(List.of("John")).get("John"));
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void testSearchUsers_NoIndexMatch() {
+        trigramIndex.rebuild(List.of(User.builder().id(1L).firstName("Jane").build()));
+
+        assertTrue(userService.search("john").isEmpty());
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testSearchUsers_ShortQueryFallsBackToRepository() {
+        when(userRepository.freeTextSearch("jo")).thenReturn(List.of(new User()));
+
+        assertEquals(1, userService.search("jo").size());
+        verify(userRepository, times(1)).freeTextSearch("jo");
     }
 
     @Test
@@ -97,6 +355,9 @@ class UserServiceImplTest {
 
         User saved = userService.createUser(user);
         assertEquals("unique@example.com", saved.getEmail());
+        verify(trigramIndex, times(1)).add(user);
+        verify(prefixIndex, times(1)).add(user);
+        verify(fuzzyIndex, times(1)).add(user);
     }
 
     @Test
@@ -112,9 +373,407 @@ class UserServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> userService.createUser(newUser));
     }
 
+    @Test
+    void testCreateUsers_SavesInBatchesAndIndexes() {
+        ReflectionTestUtils.setField(userService, "jdbcBatchSize", 2);
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            users.add(User.builder().firstName("Bulk" + i).email("bulk" + i + "@x.com").build());
+        }
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> batch = inv.getArgument(0);
+            batch.forEach(u -> u.setId((long) users.indexOf(u) + 1));
+            return batch;
+        });
+
+        List<User> saved = userService.createUsers(users);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), saved.stream().map(User::getId).toList());
+        verify(userRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(fieldIndex, times(1)).apply(anyCollection(), anyCollection());
+        assertEquals(List.of(5L), trigramIndex.search("bulk5"));
+    }
+
+    @Test
+    void testCreateUsers_RollbackLeavesIndexesUntouched() {
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> batch = inv.getArgument(0);
+            batch.forEach(u -> u.setId(42L));
+            return batch;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.createUsers(List.of(User.builder().firstName("Phantom").email("p@x.com").build()));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(trigramIndex.search("phantom").isEmpty());
+        verify(fieldIndex, never()).apply(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void testCreateUsers_DuplicateEmailInRequest() {
+        List<User> users = List.of(User.builder().email("a@x.com").build(), User.builder().email("a@x.com").build());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.createUsers(users));
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCreateUsers_ExistingEmail() {
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of("b@x.com"));
+        List<User> users = List.of(User.builder().email("a@x.com").build(), User.builder().email("b@x.com").build());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.createUsers(users));
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCreateUsers_RejectsClientIds() {
+        List<User> users = List.of(User.builder().id(7L).email("a@x.com").build());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.createUsers(users));
+        verify(userRepository, never()).findExistingEmails(any());
+    }
+
+    @Test
+    void testLoadFromRemote_ReplaceRebuildsIndex() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        respondWith(uri -> "{\"users\":[{\"id\":7,\"firstName\":\"Emily\",\"lastName\":\"Johnson\","
+                + "\"address\":{\"city\":\"Phoenix\"},\"company\":{\"name\":\"Acme\"},\"bank\":{}}]}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+
+        LoadResult loaded = userService.loadFromRemote(new LoadProgress());
+
+        assertEquals(1, loaded.users());
+        assertEquals(1, loaded.inserted());
+        verify(userRepository, times(1)).deleteAllInBatch();
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(saved.capture());
+        assertEquals("{city=Phoenix}", saved.getValue().get(0).getAddressJson());
+        assertEquals(List.of(7L), trigramIndex.search("emi"));
+        assertEquals("johnson", userService.suggest("jo", 5).get(0).term());
+        verify(searchResultCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testLoadFromRemote_FetchesAllPagesAndSavesInChunks() {
+        ReflectionTestUtils.setField(userService, "remotePageSize", 2);
+        ReflectionTestUtils.setField(userService, "remoteConcurrency", 2);
+        ReflectionTestUtils.setField(userService, "remoteChunkSize", 1);
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        respondWith(uri -> {
+            int skip = Integer.parseInt(uri.getQuery().replaceAll(".*skip=(\\d+).*", "$1"));
+            String users = LongStream.range(skip, Math.min(skip + 2, 5))
+                    .mapToObj(id -> "{\"id\":" + (id + 1) + ",\"firstName\":\"User" + (id + 1) + "\"}")
+                    .collect(Collectors.joining(","));
+            return "{\"users\":[" + users + "],\"total\":5,\"skip\":" + skip + ",\"limit\":2}";
+        });
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+
+        LoadResult loaded = userService.loadFromRemote(new LoadProgress());
+
+        assertEquals(5, loaded.users());
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(5)).saveAll(saved.capture());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                saved.getAllValues().stream().flatMap(List::stream).map(User::getRemoteId).toList());
+        ArgumentCaptor<URI> uris = ArgumentCaptor.forClass(URI.class);
+        verify(restTemplate, times(3)).execute(uris.capture(), eq(HttpMethod.GET), any(), any());
+        assertTrue(uris.getAllValues().stream().map(URI::toString).toList().containsAll(List.of(
+                "https://dummyjson.com/users?limit=2&skip=0",
+                "https://dummyjson.com/users?limit=2&skip=2",
+                "https://dummyjson.com/users?limit=2&skip=4")));
+        verify(userRepository, times(5)).saveAll(anyList());
+        verify(entityManager, times(5)).clear();
+        verify(userRepository, times(1)).deleteAllInBatch();
+        assertEquals(5, trigramIndex.size());
+    }
+
+    @Test
+    void testLoadFromRemote_DeltaWritesOnlyChanges() {
+        List<User> stored = new ArrayList<>();
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "," + remoteUser(2, "Michael") + ","
+                + remoteUser(3, "Sophia") + "]}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<User> users = inv.getArgument(0);
+            users.forEach(u -> u.setId(100 + u.getRemoteId()));
+            stored.addAll(users);
+            return users;
+        });
+        userService.loadFromRemote(new LoadProgress());
+        assertEquals(3, stored.size());
+        assertEquals(3, trigramIndex.size());
+
+        when(userRepository.findRemoteFingerprints()).thenReturn(stored.stream()
+                .map(u -> new UserFingerprint(u.getId(), u.getRemoteId(), u.getContentHash())).toList());
+        User michaelRow = User.builder().id(102L).remoteId(2L).firstName("Michael").role("Admin").build();
+        when(userRepository.findAllById(Set.of(102L))).thenReturn(List.of(michaelRow));
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "," + remoteUser(2, "Mikey") + ","
+                + remoteUser(4, "James") + "]}");
+        clearInvocations(userRepository, searchResultCache);
+
+        LoadResult result = userService.loadFromRemote(new LoadProgress());
+
+        assertEquals(new LoadResult(3, 1, 1, 1, 1), result);
+        verify(userRepository, never()).findAll();
+        ArgumentCaptor<List<User>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(1)).saveAll(inserted.capture());
+        assertEquals(List.of(4L), inserted.getValue().stream().map(User::getRemoteId).toList());
+        assertEquals("Mikey", michaelRow.getFirstName());
+        assertEquals("Admin", michaelRow.getRole());
+        verify(userRepository, times(1)).deleteAllByIdInBatch(List.of(103L));
+        verify(userRepository, never()).deleteAllInBatch();
+        verify(searchResultCache, times(1)).invalidateAll();
+        assertEquals(List.of(102L), trigramIndex.search("mikey"));
+        assertTrue(trigramIndex.search("sophia").isEmpty());
+    }
+
+    @Test
+    void testLoadFromRemote_DeltaUnchangedWritesNothing() {
+        User emily = User.builder().remoteId(1L).firstName("Emily").lastName("Smith").role("User").build();
+        when(userRepository.findRemoteFingerprints())
+                .thenReturn(List.of(new UserFingerprint(101L, 1L, UserServiceImpl.contentHash(emily))));
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "]}");
+
+        userService.loadFromRemote(new LoadProgress());
+
+        verify(userRepository, never()).saveAll(anyList());
+        verify(userRepository, never()).findAllById(any());
+        verify(userRepository, never()).deleteAllByIdInBatch(any());
+        verify(searchResultCache, never()).invalidateAll();
+    }
+
+    @Test
+    void testLoadFromRemote_DeltaIndexesOnlyAfterCommit() {
+        trigramIndex.rebuild(List.of(User.builder().id(9L).firstName("Sophia").build()));
+        when(userRepository.findRemoteFingerprints()).thenReturn(List.of(new UserFingerprint(9L, 3L, "old")));
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "]}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.loadFromRemote(new LoadProgress());
+
+            assertEquals(List.of(9L), trigramIndex.search("sophia"), "Indexes must not change before the commit");
+            assertTrue(trigramIndex.search("emily").isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(trigramIndex.search("sophia").isEmpty());
+        assertEquals(List.of(1L), trigramIndex.search("emily"));
+    }
+
+    @Test
+    void testLoadFromRemote_ReplaceRollbackKeepsIndexes() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        trigramIndex.rebuild(List.of(User.builder().id(9L).firstName("Sophia").build()));
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "]}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.loadFromRemote(new LoadProgress());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(9L), trigramIndex.search("sophia"));
+        assertTrue(trigramIndex.search("emily").isEmpty());
+        verify(searchResultCache, never()).invalidateAll();
+    }
+
+    @Test
+    void testContentHash() {
+        User user = User.builder().firstName("Emily").lastName("Smith").age(28).build();
+        String hash = UserServiceImpl.contentHash(user);
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, UserServiceImpl.contentHash(User.builder().firstName("Emily").lastName("Smith").age(28).id(5L).build()));
+        assertNotEquals(hash, UserServiceImpl.contentHash(User.builder().firstName("Emily").lastName("Smith").age(29).build()));
+        assertNotEquals(hash, UserServiceImpl.contentHash(User.builder().firstName("EmilyS").lastName("mith").age(28).build()));
+        assertNotEquals(UserServiceImpl.contentHash(User.builder().email("").build()),
+                UserServiceImpl.contentHash(User.builder().build()));
+    }
+
+    @Test
+    void testLoadFromRemote_SnapshotStagesThenPublishes() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.SNAPSHOT);
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "," + remoteUser(2, "Michael") + ","
+                + remoteUser(1, "Emily") + "],\"total\":3}");
+        List<List<StagedUser>> staged = new ArrayList<>();
+        when(stagedUserRepository.saveAll(anyList())).thenAnswer(inv -> {
+            staged.add(List.copyOf(inv.getArgument(0)));
+            return inv.getArgument(0);
+        });
+        User emily = User.builder().id(51L).remoteId(1L).firstName("Emily").build();
+        User michael = User.builder().id(52L).remoteId(2L).firstName("Michael").build();
+        when(userRepository.findAll()).thenReturn(List.of(emily, michael));
+
+        LoadResult loaded = userService.loadFromRemote(new LoadProgress());
+
+        assertEquals(2, loaded.users());
+        assertEquals(List.of(1L, 2L), staged.get(0).stream().map(StagedUser::getRemoteId).toList());
+        InOrder order = inOrder(stagedUserRepository, userRepository);
+        order.verify(stagedUserRepository).deleteAllInBatch();
+        order.verify(stagedUserRepository).saveAll(anyList());
+        order.verify(userRepository).deleteAllInBatch();
+        order.verify(stagedUserRepository).copyIntoUsers();
+        order.verify(stagedUserRepository).deleteAllInBatch();
+        verify(userRepository, never()).saveAll(anyList());
+        assertEquals(List.of(51L), trigramIndex.search("emi"));
+    }
+
+    @Test
+    void testLoadFromRemote_SnapshotFailureKeepsCurrentUsers() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.SNAPSHOT);
+        ReflectionTestUtils.setField(userService, "remotePageSize", 1);
+        trigramIndex.rebuild(List.of(User.builder().id(9L).firstName("Emily").build()));
+        respondWith(uri -> uri.getQuery().contains("skip=0")
+                ? "{\"users\":[" + remoteUser(1, "Michael") + "],\"total\":2}"
+                : "{\"users\":[");
+
+        assertThrows(RuntimeException.class, () -> userService.loadFromRemote(new LoadProgress()));
+        verify(userRepository, never()).deleteAllInBatch();
+        verify(stagedUserRepository, never()).copyIntoUsers();
+        assertEquals(List.of(9L), trigramIndex.search("emi"));
+    }
+
+    @Test
+    void testExportNdjson_WritesOneUserPerLine() throws Exception {
+        when(userRepository.streamAll()).thenReturn(Stream.of(
+                User.builder().id(1L).firstName("Emily").build(),
+                User.builder().id(2L).firstName("Michael").build()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userService.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("Emily", objectMapper.readTree(lines[0]).get("firstName").asText());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testLoadFromRemote_SameBodySkipsRewrite() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "],\"total\":1}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+        LoadResult first = userService.loadFromRemote(new LoadProgress());
+
+        LoadProgress progress = new LoadProgress();
+        LoadResult second = userService.loadFromRemote(progress);
+
+        assertEquals(first.users(), second.users());
+        assertEquals(0, second.inserted());
+        assertEquals(1, second.unchanged());
+        assertTrue(progress.unchanged());
+        assertEquals(1, progress.pagesFetched());
+        verify(userRepository, never()).findAll();
+        verify(userRepository, times(1)).deleteAllInBatch();
+        verify(userRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testLoadFromRemote_NotModifiedSkipsParsing() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        List<String> conditions = new ArrayList<>();
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any())).thenAnswer(inv -> {
+            MockClientHttpRequest request = new MockClientHttpRequest();
+            ((RequestCallback) inv.getArgument(2)).doWithRequest(request);
+            conditions.add(String.valueOf(request.getHeaders().getIfNoneMatch()));
+            ResponseExtractor<?> extractor = inv.getArgument(3);
+            if (request.getHeaders().getIfNoneMatch().contains("\"v1\"")) {
+                return extractor.extractData(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED));
+            }
+            MockClientHttpResponse response = new MockClientHttpResponse(
+                    ("{\"users\":[" + remoteUser(1, "Emily") + "]}").getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            response.getHeaders().setETag("\"v1\"");
+            return extractor.extractData(response);
+        });
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+        userService.loadFromRemote(new LoadProgress());
+
+        LoadProgress progress = new LoadProgress();
+        userService.loadFromRemote(progress);
+
+        assertTrue(progress.unchanged());
+        assertEquals(List.of("[]", "[\"v1\"]"), conditions);
+        verify(userRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testLoadFromRemote_ChangedBodyReloads() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        String[] name = { "Emily" };
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, name[0]) + "],\"total\":1}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+        userService.loadFromRemote(new LoadProgress());
+
+        name[0] = "Emilia";
+        LoadProgress progress = new LoadProgress();
+        userService.loadFromRemote(progress);
+
+        assertFalse(progress.unchanged());
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).saveAll(saved.capture());
+        assertEquals("Emilia", saved.getValue().get(0).getFirstName());
+    }
+
+    @Test
+    void testLoadFallback_ReturnsLastLoadWithoutQuery() {
+        ReflectionTestUtils.setField(userService, "syncMode", UserServiceImpl.SyncMode.REPLACE);
+        respondWith(uri -> "{\"users\":[" + remoteUser(1, "Emily") + "],\"total\":1}");
+        when(userRepository.saveAll(anyList())).thenAnswer(inv -> withRemoteIds(inv.getArgument(0)));
+        userService.loadFromRemote(new LoadProgress());
+
+        LoadProgress progress = new LoadProgress();
+        LoadResult fallback = userService.loadFallback(progress, new IllegalStateException("CircuitBreaker is OPEN"));
+
+        assertEquals(new LoadResult(1, 0, 0, 0, 0), fallback);
+        assertTrue(progress.fellBack());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testLoadFallback_NothingLoadedYet() {
+        LoadResult fallback = userService.loadFallback(new LoadProgress(), new IllegalStateException("Bulkhead is full"));
+
+        assertEquals(LoadResult.NONE, fallback);
+        verify(userRepository, never()).findAll();
+    }
+
     @Test
     void testLoadFromRemote_NoData() {
-        when(restTemplate.getForObject(anyString(), eq(DummyUserResponse.class))).thenReturn(null);
-        assertThrows(RuntimeException.class, () -> userService.loadFromRemote());
+        respondWith(uri -> "");
+        assertThrows(RuntimeException.class, () -> userService.loadFromRemote(new LoadProgress()));
+    }
+
+    private static String remoteUser(long id, String firstName) {
+        return "{\"id\":" + id + ",\"firstName\":\"" + firstName + "\",\"lastName\":\"Smith\"}";
+    }
+
+    private static List<User> withRemoteIds(List<User> users) {
+        users.forEach(u -> u.setId(u.getRemoteId()));
+        return users;
+    }
+
+    private void respondWith(Function<URI, String> body) {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), any(), any())).thenAnswer(inv -> {
+            URI uri = inv.getArgument(0);
+            ResponseExtractor<?> extractor = inv.getArgument(3);
+            return extractor.extractData(new MockClientHttpResponse(body.apply(uri).getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+        });
     }
 }